@@ -1,30 +1,62 @@
 package api.aop.logging;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * <p>
+ * The {@link Mono} and {@link Flux} returned by these components are timed, from their subscription to their termination,
+ * with the number of elements they emitted. The loggers and meters are looked up once per method: when debug is off, a
+ * synchronous method call only costs a map lookup.
+ * <p>
+ * By default, it only runs with the "dev" profile, see {@code application.logging-aspect.enabled}.
  */
 @Aspect
 public class LoggingAspect {
 
+    public static final String METHOD_METER_NAME = "application.method";
+    public static final String METHOD_METER_DESCRIPTION =
+        "Time from the subscription to the termination of the Mono or Flux returned by a method.";
+    public static final String METHOD_METER_CLASS_DIMENSION = "class";
+    public static final String METHOD_METER_METHOD_DIMENSION = "method";
+    public static final String METHOD_METER_OUTCOME_DIMENSION = "outcome";
+
+    public static final String ELEMENTS_METER_NAME = "application.method.elements";
+    public static final String ELEMENTS_METER_DESCRIPTION = "Number of elements emitted by the Mono or Flux returned by a method.";
+    public static final String ELEMENTS_METER_BASE_UNIT = "elements";
+
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final MeterRegistry registry;
+
+    private final Map<Method, MethodMeters> methodMeters = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, MeterRegistry registry) {
         this.env = env;
+        this.registry = registry;
     }
 
     /**
@@ -48,13 +80,15 @@ public class LoggingAspect {
     }
 
     /**
-     * Retrieves the {@link Logger} associated to the given {@link JoinPoint}.
+     * Retrieves the {@link MethodMeters} associated to the method of the given {@link JoinPoint}.
      *
-     * @param joinPoint join point we want the logger for.
-     * @return {@link Logger} associated to the given {@link JoinPoint}.
+     * @param joinPoint join point we want the meters for.
+     * @return {@link MethodMeters} associated to the given {@link JoinPoint}, created on the first call of the method.
      */
-    private Logger logger(JoinPoint joinPoint) {
-        return LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringTypeName());
+    private MethodMeters methodMeters(JoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodMeters meters = methodMeters.get(signature.getMethod());
+        return meters != null ? meters : methodMeters.computeIfAbsent(signature.getMethod(), method -> new MethodMeters(signature));
     }
 
     /**
@@ -65,25 +99,26 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut() && springBeanPointcut()", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
+        MethodMeters meters = methodMeters(joinPoint);
         if (env.acceptsProfiles(Profiles.of(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT))) {
-            logger(joinPoint).error(
+            meters.log.error(
                 "Exception in {}() with cause = '{}' and exception = '{}'",
-                joinPoint.getSignature().getName(),
+                meters.methodName,
                 e.getCause() != null ? e.getCause() : "NULL",
                 e.getMessage(),
                 e
             );
         } else {
-            logger(joinPoint).error(
+            meters.log.error(
                 "Exception in {}() with cause = {}",
-                joinPoint.getSignature().getName(),
+                meters.methodName,
                 e.getCause() != null ? String.valueOf(e.getCause()) : "NULL"
             );
         }
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that logs when a method is entered and exited, and times the {@link Mono} or {@link Flux} it returns.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -91,19 +126,97 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
+        MethodMeters meters = methodMeters(joinPoint);
+        Logger log = meters.log;
         if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+            log.debug("Enter: {}() with argument[s] = {}", meters.methodName, Arrays.toString(joinPoint.getArgs()));
         }
         try {
             Object result = joinPoint.proceed();
+            if (result instanceof Mono<?> mono) {
+                return Mono.defer(() -> meters.time(mono));
+            }
+            if (result instanceof Flux<?> flux) {
+                return Flux.defer(() -> meters.time(flux));
+            }
             if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+                log.debug("Exit: {}() with result = {}", meters.methodName, result);
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), meters.methodName);
             throw e;
         }
     }
+
+    /**
+     * The logger and the meters of a method.
+     */
+    private final class MethodMeters {
+
+        private final Logger log;
+
+        private final String methodName;
+
+        private final Timer successTimer;
+        private final Timer errorTimer;
+        private final Timer cancelTimer;
+        private final DistributionSummary elements;
+
+        private MethodMeters(MethodSignature signature) {
+            this.log = LoggerFactory.getLogger(signature.getDeclaringTypeName());
+            this.methodName = signature.getName();
+            String className = signature.getDeclaringType().getSimpleName();
+            this.successTimer = methodTimerBuilder(className, "success").register(registry);
+            this.errorTimer = methodTimerBuilder(className, "error").register(registry);
+            this.cancelTimer = methodTimerBuilder(className, "cancel").register(registry);
+            this.elements = DistributionSummary.builder(ELEMENTS_METER_NAME)
+                .description(ELEMENTS_METER_DESCRIPTION)
+                .baseUnit(ELEMENTS_METER_BASE_UNIT)
+                .tag(METHOD_METER_CLASS_DIMENSION, className)
+                .tag(METHOD_METER_METHOD_DIMENSION, methodName)
+                .register(registry);
+        }
+
+        private Timer.Builder methodTimerBuilder(String className, String outcome) {
+            return Timer.builder(METHOD_METER_NAME)
+                .description(METHOD_METER_DESCRIPTION)
+                .tag(METHOD_METER_CLASS_DIMENSION, className)
+                .tag(METHOD_METER_METHOD_DIMENSION, methodName)
+                .tag(METHOD_METER_OUTCOME_DIMENSION, outcome);
+        }
+
+        private <T> Mono<T> time(Mono<T> mono) {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return mono.doOnNext(value -> onNext(count, value)).doFinally(signal -> onTermination(signal, start, count.get()));
+        }
+
+        private <T> Flux<T> time(Flux<T> flux) {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return flux.doOnNext(value -> onNext(count, value)).doFinally(signal -> onTermination(signal, start, count.get()));
+        }
+
+        private void onNext(AtomicLong count, Object value) {
+            count.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Emit: {}() with element = {}", methodName, value);
+            }
+        }
+
+        private void onTermination(SignalType signal, long start, long count) {
+            long duration = System.nanoTime() - start;
+            Timer timer = switch (signal) {
+                case ON_COMPLETE -> successTimer;
+                case ON_ERROR -> errorTimer;
+                default -> cancelTimer;
+            };
+            timer.record(duration, TimeUnit.NANOSECONDS);
+            elements.record(count);
+            if (log.isDebugEnabled()) {
+                log.debug("Exit: {}() with {} element[s] after {} ms ({})", methodName, count, duration / 1_000_000, signal);
+            }
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package api.aop.observation;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aspect observing the public methods of the classes annotated with {@link Observed}.
+ * <p>
+ * Unlike Micrometer's {@code ObservedAspect}, which stops the observation as soon as a {@link Mono} or {@link Flux} is
+ * returned, the observation of a reactive method lasts from the subscription to the termination of its result: it is
+ * the parent of the observations of the R2DBC statements run by the method. The observation names and key values follow
+ * {@code ObservedAspect}'s, so {@code management.observations.annotations.enabled} must stay off to not observe the
+ * methods twice.
+ */
+@Aspect
+public class ObservedServiceAspect {
+
+    public static final String CLASS_KEY = "class";
+    public static final String METHOD_KEY = "method";
+
+    private final ObservationRegistry registry;
+
+    private final Map<Method, MethodObservation> methodObservations = new ConcurrentHashMap<>();
+
+    public ObservedServiceAspect(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Advice that observes a method call, or the {@link Mono} or {@link Flux} it returns.
+     *
+     * @param joinPoint join point for advice.
+     * @param observed the annotation of the class.
+     * @return result.
+     * @throws Throwable the exception thrown by the method.
+     */
+    @Around("execution(public * *(..)) && @within(observed)")
+    public Object observe(ProceedingJoinPoint joinPoint, Observed observed) throws Throwable {
+        MethodObservation methodObservation = methodObservation(joinPoint, observed);
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        if (Mono.class.isAssignableFrom(returnType)) {
+            return ((Mono<?>) joinPoint.proceed()).tap(Micrometer.observation(registry, methodObservation::create));
+        }
+        if (Flux.class.isAssignableFrom(returnType)) {
+            return ((Flux<?>) joinPoint.proceed()).tap(Micrometer.observation(registry, methodObservation::create));
+        }
+        return methodObservation.create(registry).observeChecked((Observation.CheckedCallable<Object, Throwable>) joinPoint::proceed);
+    }
+
+    private MethodObservation methodObservation(ProceedingJoinPoint joinPoint, Observed observed) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        MethodObservation methodObservation = methodObservations.get(signature.getMethod());
+        return methodObservation != null
+            ? methodObservation
+            : methodObservations.computeIfAbsent(signature.getMethod(), method -> new MethodObservation(signature, observed));
+    }
+
+    /**
+     * The names and key values of the observations of a method.
+     */
+    private static final class MethodObservation {
+
+        private final String name;
+
+        private final String contextualName;
+
+        private final KeyValues lowCardinalityKeyValues;
+
+        private MethodObservation(MethodSignature signature, Observed observed) {
+            String className = signature.getDeclaringType().getSimpleName();
+            this.name = observed.name().isEmpty() ? "method.observed" : observed.name();
+            this.contextualName = observed.contextualName().isEmpty()
+                ? className + "#" + signature.getName()
+                : observed.contextualName();
+            this.lowCardinalityKeyValues = KeyValues.of(observed.lowCardinalityKeyValues()).and(
+                CLASS_KEY,
+                className,
+                METHOD_KEY,
+                signature.getName()
+            );
+        }
+
+        private Observation create(ObservationRegistry registry) {
+            return Observation.createNotStarted(name, registry)
+                .contextualName(contextualName)
+                .lowCardinalityKeyValues(lowCardinalityKeyValues);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Observation aspect.
+ */
+package api.aop.observation;
@@ -1,5 +1,6 @@
 package api.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,9 +11,695 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Security security = new Security();
+
+    private final Mail mail = new Mail();
+
+    private final LoggingAspect loggingAspect = new LoggingAspect();
+
+    private final Repository repository = new Repository();
+
+    private final Tracing tracing = new Tracing();
+
+    private final Logging logging = new Logging();
+
     // jhipster-needle-application-properties-property
 
+    public Security getSecurity() {
+        return security;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public LoggingAspect getLoggingAspect() {
+        return loggingAspect;
+    }
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class Security {
+
+        private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+
+        private final PasswordHashing passwordHashing = new PasswordHashing();
+
+        private final PasswordEncoder passwordEncoder = new PasswordEncoder();
+
+        private final JwtCache jwtCache = new JwtCache();
+
+        private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+        private final RefreshToken refreshToken = new RefreshToken();
+
+        private final LoginRateLimit loginRateLimit = new LoginRateLimit();
+
+        public UserDetailsCache getUserDetailsCache() {
+            return userDetailsCache;
+        }
+
+        public PasswordHashing getPasswordHashing() {
+            return passwordHashing;
+        }
+
+        public PasswordEncoder getPasswordEncoder() {
+            return passwordEncoder;
+        }
+
+        public JwtCache getJwtCache() {
+            return jwtCache;
+        }
+
+        public TokenRevocation getTokenRevocation() {
+            return tokenRevocation;
+        }
+
+        public RefreshToken getRefreshToken() {
+            return refreshToken;
+        }
+
+        public LoginRateLimit getLoginRateLimit() {
+            return loginRateLimit;
+        }
+
+        /**
+         * Cache of the users loaded to authenticate them, see {@link api.security.DomainUserDetailsService}.
+         */
+        public static class UserDetailsCache {
+
+            /**
+             * Maximum number of cached users, 0 disables the cache.
+             */
+            private long maximumSize = 10_000;
+
+            /**
+             * Time after which a cached user is loaded again from the database.
+             */
+            private Duration timeToLive = Duration.ofMinutes(5);
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        /**
+         * Threads hashing the passwords, see {@link api.security.PasswordHashingService}.
+         */
+        public static class PasswordHashing {
+
+            /**
+             * Number of threads, the number of processors by default.
+             */
+            private int threads = Runtime.getRuntime().availableProcessors();
+
+            /**
+             * Maximum number of hashes waiting for a thread, the next ones are rejected.
+             */
+            private int queueCapacity = 128;
+
+            public int getThreads() {
+                return threads;
+            }
+
+            public void setThreads(int threads) {
+                this.threads = threads;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        /**
+         * Encoding of the new password hashes, see {@link SecurityConfiguration#passwordEncoder()}.
+         * <p>
+         * The hashes encoded differently are still checked, and encoded again when their user logs in.
+         */
+        public static class PasswordEncoder {
+
+            /**
+             * Id of the encoder of the new hashes, {@code bcrypt} or {@code pbkdf2}.
+             */
+            private String encodingId = "bcrypt";
+
+            /**
+             * Log rounds of the BCrypt hashes, from 4 to 31: each round doubles the time to check a password.
+             */
+            private int bcryptStrength = 10;
+
+            public String getEncodingId() {
+                return encodingId;
+            }
+
+            public void setEncodingId(String encodingId) {
+                this.encodingId = encodingId;
+            }
+
+            public int getBcryptStrength() {
+                return bcryptStrength;
+            }
+
+            public void setBcryptStrength(int bcryptStrength) {
+                this.bcryptStrength = bcryptStrength;
+            }
+        }
+
+        /**
+         * Cache of the verified tokens, see {@link api.security.CachingReactiveJwtDecoder}.
+         */
+        public static class JwtCache {
+
+            /**
+             * Maximum number of cached tokens, 0 disables the cache.
+             */
+            private long maximumSize = 10_000;
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+        }
+
+        /**
+         * Revoked tokens, see {@link api.security.TokenRevocationList}.
+         */
+        public static class TokenRevocation {
+
+            /**
+             * Interval between the loads of the revocations made by the other instances.
+             */
+            private Duration refreshInterval = Duration.ofSeconds(30);
+
+            public Duration getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(Duration refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+        }
+
+        /**
+         * Access tokens and the refresh tokens renewing them, see {@link api.service.RefreshTokenService}.
+         */
+        public static class RefreshToken {
+
+            /**
+             * Validity of the access tokens (JWTs), renewed with a refresh token once expired.
+             */
+            private Duration accessTokenValidity = Duration.ofMinutes(15);
+
+            /**
+             * Validity of the refresh tokens.
+             */
+            private Duration validity = Duration.ofDays(1);
+
+            /**
+             * Validity of the refresh tokens of the users asking to be remembered.
+             */
+            private Duration validityForRememberMe = Duration.ofDays(30);
+
+            public Duration getAccessTokenValidity() {
+                return accessTokenValidity;
+            }
+
+            public void setAccessTokenValidity(Duration accessTokenValidity) {
+                this.accessTokenValidity = accessTokenValidity;
+            }
+
+            public Duration getValidity() {
+                return validity;
+            }
+
+            public void setValidity(Duration validity) {
+                this.validity = validity;
+            }
+
+            public Duration getValidityForRememberMe() {
+                return validityForRememberMe;
+            }
+
+            public void setValidityForRememberMe(Duration validityForRememberMe) {
+                this.validityForRememberMe = validityForRememberMe;
+            }
+        }
+
+        /**
+         * Limits of the login attempts, see {@link api.security.LoginRateLimiter}.
+         */
+        public static class LoginRateLimit {
+
+            /**
+             * Attempts from a single client address.
+             */
+            private final Bucket address = new Bucket(30, Duration.ofSeconds(2));
+
+            /**
+             * Attempts for a single login.
+             */
+            private final Bucket login = new Bucket(10, Duration.ofSeconds(6));
+
+            private final Lockout lockout = new Lockout();
+
+            /**
+             * Maximum number of client addresses, and of logins, tracked at once.
+             */
+            private long maximumSize = 100_000;
+
+            public Bucket getAddress() {
+                return address;
+            }
+
+            public Bucket getLogin() {
+                return login;
+            }
+
+            public Lockout getLockout() {
+                return lockout;
+            }
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            /**
+             * A token bucket: up to {@code capacity} attempts at once, then one attempt every {@code refillInterval}.
+             */
+            public static class Bucket {
+
+                private int capacity;
+
+                private Duration refillInterval;
+
+                public Bucket(int capacity, Duration refillInterval) {
+                    this.capacity = capacity;
+                    this.refillInterval = refillInterval;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public Duration getRefillInterval() {
+                    return refillInterval;
+                }
+
+                public void setRefillInterval(Duration refillInterval) {
+                    this.refillInterval = refillInterval;
+                }
+            }
+
+            /**
+             * Lockout of a login after consecutive failed attempts, doubled by each next failure.
+             */
+            public static class Lockout {
+
+                /**
+                 * Number of consecutive failed attempts locking the login.
+                 */
+                private int failures = 5;
+
+                /**
+                 * Duration of the first lockout.
+                 */
+                private Duration duration = Duration.ofSeconds(30);
+
+                /**
+                 * Maximum duration of a lockout, after which the failed attempts are forgotten.
+                 */
+                private Duration maximumDuration = Duration.ofHours(1);
+
+                public int getFailures() {
+                    return failures;
+                }
+
+                public void setFailures(int failures) {
+                    this.failures = failures;
+                }
+
+                public Duration getDuration() {
+                    return duration;
+                }
+
+                public void setDuration(Duration duration) {
+                    this.duration = duration;
+                }
+
+                public Duration getMaximumDuration() {
+                    return maximumDuration;
+                }
+
+                public void setMaximumDuration(Duration maximumDuration) {
+                    this.maximumDuration = maximumDuration;
+                }
+            }
+        }
+    }
+    /**
+     * Delivery of the mails queued in the outbox, see {@link api.service.MailDeliveryService}.
+     */
+    public static class Mail {
+
+        /**
+         * Number of threads sending the mails, each over its own SMTP connection.
+         */
+        private int threads = 2;
+
+        /**
+         * Maximum number of mails sent over a single SMTP connection.
+         */
+        private int batchSize = 20;
+
+        /**
+         * Interval between the deliveries of the queued mails.
+         */
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * Time after which a mail claimed by an instance that did not deliver it is delivered again.
+         */
+        private Duration lease = Duration.ofMinutes(5);
+
+        /**
+         * Maximum number of attempts to send a mail, after which it is kept in the outbox but no longer sent.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before the second attempt to send a mail, doubled after each next attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        /**
+         * Maximum delay between two attempts to send a mail.
+         */
+        private Duration maximumBackoff = Duration.ofHours(1);
+
+        /**
+         * Number of threads rendering the templates of the mails.
+         */
+        private int renderThreads = Runtime.getRuntime().availableProcessors();
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaximumBackoff() {
+            return maximumBackoff;
+        }
+
+        public void setMaximumBackoff(Duration maximumBackoff) {
+            this.maximumBackoff = maximumBackoff;
+        }
+
+        public int getRenderThreads() {
+            return renderThreads;
+        }
+
+        public void setRenderThreads(int renderThreads) {
+            this.renderThreads = renderThreads;
+        }
+    }
+
+    public static class LoggingAspect {
+
+        /**
+         * Whether the services, repositories and REST controllers are logged at debug level and their reactive results timed.
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class Repository {
+
+        /**
+         * Duration from which a query of a custom repository is kept in the slow query log.
+         */
+        private Duration slowQueryThreshold = Duration.ofMillis(500);
+
+        /**
+         * Maximum number of queries kept in the slow query log, the oldest are dropped first.
+         */
+        private int slowQueryLogSize = 100;
+
+        public Duration getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+
+        public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+
+        public int getSlowQueryLogSize() {
+            return slowQueryLogSize;
+        }
+
+        public void setSlowQueryLogSize(int slowQueryLogSize) {
+            this.slowQueryLogSize = slowQueryLogSize;
+        }
+    }
+
+    public static class Tracing {
+
+        /**
+         * Maximum number of finished spans kept in memory for {@code /management/traces}, the oldest are dropped first.
+         */
+        private int bufferSize = 10000;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+    }
+
+    public static class Logging {
+
+        private final Async async = new Async();
+
+        public Async getAsync() {
+            return async;
+        }
+
+        public static class Async {
+
+            /**
+             * Whether the logs are written as JSON lines by a dedicated thread, instead of the console appender.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Number of events the queue of the writer thread holds, rounded up to a power of two.
+             */
+            private int queueSize = 8192;
+
+            /**
+             * Number of free slots of the queue under which the events at or below the drop level are dropped.
+             */
+            private int discardingThreshold = 1024;
+
+            /**
+             * Level at or below which the events are dropped first when the queue fills up.
+             */
+            private String dropLevel = "INFO";
+
+            /**
+             * Maximum number of events encoded and written at once.
+             */
+            private int batchSize = 256;
+
+            /**
+             * Where the JSON lines are written.
+             */
+            private Sink sink = Sink.CONSOLE;
+
+            /**
+             * File the JSON lines are appended to, with the FILE sink.
+             */
+            private String file = "logs/apister.json";
+
+            /**
+             * Host the JSON lines are sent to, with the TCP sink, e.g. a Logstash tcp input with the json_lines codec.
+             */
+            private String host = "localhost";
+
+            /**
+             * Port the JSON lines are sent to, with the TCP sink.
+             */
+            private int port = 5000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getQueueSize() {
+                return queueSize;
+            }
+
+            public void setQueueSize(int queueSize) {
+                this.queueSize = queueSize;
+            }
+
+            public int getDiscardingThreshold() {
+                return discardingThreshold;
+            }
+
+            public void setDiscardingThreshold(int discardingThreshold) {
+                this.discardingThreshold = discardingThreshold;
+            }
+
+            public String getDropLevel() {
+                return dropLevel;
+            }
+
+            public void setDropLevel(String dropLevel) {
+                this.dropLevel = dropLevel;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Sink getSink() {
+                return sink;
+            }
+
+            public void setSink(Sink sink) {
+                this.sink = sink;
+            }
+
+            public String getFile() {
+                return file;
+            }
+
+            public void setFile(String file) {
+                this.file = file;
+            }
+
+            public String getHost() {
+                return host;
+            }
+
+            public void setHost(String host) {
+                this.host = host;
+            }
+
+            public int getPort() {
+                return port;
+            }
+
+            public void setPort(int port) {
+                this.port = port;
+            }
+
+            public enum Sink {
+                CONSOLE,
+                FILE,
+                TCP,
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
 import org.springframework.boot.ansi.AnsiColor;
@@ -16,6 +17,9 @@ import org.springframework.boot.ansi.AnsiStyle;
 /**
  * Log filter to prevent attackers from forging log entries by submitting input containing CRLF characters.
  * CRLF characters are replaced with a red colored _ character.
+ * <p>
+ * Most messages are clean: they are scanned once and returned as is, without allocation. The replacement and the
+ * decisions of {@link #isLoggerSafe} are computed once, the latter per logger name.
  *
  * @see <a href="https://owasp.org/www-community/attacks/Log_Injection">Log Forging Description</a>
  * @see <a href="https://github.com/jhipster/generator-jhipster/issues/14949">JHipster issue</a>
@@ -43,26 +47,80 @@ public class CRLFLogConverter extends CompositeConverter<ILoggingEvent> {
         ELEMENTS = Collections.unmodifiableMap(ansiElements);
     }
 
+    private final Map<String, Boolean> safeLoggers = new ConcurrentHashMap<>();
+
+    private String replacement;
+
     @Override
-    protected String transform(ILoggingEvent event, String in) {
+    public void start() {
         AnsiElement element = ELEMENTS.get(getFirstOption());
+        replacement = element == null ? "_" : toAnsiString("_", element);
+        super.start();
+    }
+
+    @Override
+    protected String transform(ILoggingEvent event, String in) {
+        int first = indexOfCrlf(in, 0);
+        if (first < 0) {
+            return in;
+        }
         List<Marker> markers = event.getMarkerList();
         if ((markers != null && !markers.isEmpty() && markers.get(0).contains(CRLF_SAFE_MARKER)) || isLoggerSafe(event)) {
             return in;
         }
-        String replacement = element == null ? "_" : toAnsiString("_", element);
-        return in.replaceAll("[\n\r\t]", replacement);
+        return replaceCrlf(in, first, replacement);
     }
 
     protected boolean isLoggerSafe(ILoggingEvent event) {
+        String loggerName = event.getLoggerName();
+        Boolean safe = safeLoggers.get(loggerName);
+        return safe != null ? safe : safeLoggers.computeIfAbsent(loggerName, CRLFLogConverter::isSafeLoggerName);
+    }
+
+    private static boolean isSafeLoggerName(String loggerName) {
         for (String safeLogger : SAFE_LOGS) {
-            if (event.getLoggerName().startsWith(safeLogger)) {
+            if (loggerName.startsWith(safeLogger)) {
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Replaces the CR, LF and tab characters of the given string, from the first of them.
+     *
+     * @param in the string to sanitize.
+     * @param first the index of the first CR, LF or tab character of {@code in}.
+     * @param replacement the replacement of each CR, LF or tab character.
+     * @return the sanitized string.
+     */
+    static String replaceCrlf(String in, int first, String replacement) {
+        StringBuilder out = new StringBuilder(in.length() + 4 * replacement.length());
+        int start = 0;
+        for (int i = first; i >= 0; i = indexOfCrlf(in, start)) {
+            out.append(in, start, i).append(replacement);
+            start = i + 1;
+        }
+        return out.append(in, start, in.length()).toString();
+    }
+
+    /**
+     * Returns the index of the first CR, LF or tab character of the given string.
+     *
+     * @param in the string to scan.
+     * @param from the index to scan from.
+     * @return the index of the first CR, LF or tab character from {@code from}, or {@code -1} if there is none.
+     */
+    static int indexOfCrlf(String in, int from) {
+        for (int i = from; i < in.length(); i++) {
+            char c = in.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\t') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     protected String toAnsiString(String in, AnsiElement element) {
         return AnsiOutput.toString(element, in);
     }
@@ -2,9 +2,17 @@ package api.config;
 
 import static tech.jhipster.config.logging.LoggingUtils.*;
 
+import api.config.logging.AsyncJsonAppender;
+import api.config.logging.LogSink;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import ch.qos.logback.core.spi.ContextAwareBase;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.LoggerFactory;
@@ -13,16 +21,22 @@ import org.springframework.context.annotation.Configuration;
 import tech.jhipster.config.JHipsterProperties;
 
 /*
- * Configures the console and Logstash log appenders from the app properties
+ * Configures the console, Logstash and asynchronous JSON log appenders from the app properties
  */
 @Configuration
 public class LoggingConfiguration {
 
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(LoggingConfiguration.class);
+
+    private static final String CONSOLE_APPENDER_NAME = "CONSOLE";
+
     public LoggingConfiguration(
         @Value("${spring.application.name}") String appName,
         @Value("${server.port}") String serverPort,
         JHipsterProperties jHipsterProperties,
-        ObjectMapper mapper
+        ApplicationProperties applicationProperties,
+        ObjectMapper mapper,
+        MeterRegistry meterRegistry
     ) throws JsonProcessingException {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
 
@@ -33,7 +47,19 @@ public class LoggingConfiguration {
 
         JHipsterProperties.Logging loggingProperties = jHipsterProperties.getLogging();
         JHipsterProperties.Logging.Logstash logstashProperties = loggingProperties.getLogstash();
+        ApplicationProperties.Logging.Async asyncProperties = applicationProperties.getLogging().getAsync();
 
+        if (asyncProperties.isEnabled()) {
+            AsyncJsonAppender asyncJsonAppender = new AsyncJsonAppender(asyncProperties, logSink(asyncProperties), map);
+            asyncJsonAppender.bindTo(meterRegistry);
+            addAsyncJsonAppender(context, asyncJsonAppender, asyncProperties, true);
+            context.addListener(new AsyncJsonAppenderContextListener(asyncJsonAppender, asyncProperties));
+            if (loggingProperties.isUseJsonFormat() && asyncProperties.getSink() == ApplicationProperties.Logging.Async.Sink.CONSOLE) {
+                // The asynchronous appender already writes JSON lines to the console
+                LOG.warn("jhipster.logging.use-json-format is ignored, the console is written by the asynchronous JSON appender");
+                loggingProperties = withoutJsonFormat(loggingProperties);
+            }
+        }
         if (loggingProperties.isUseJsonFormat()) {
             addJsonConsoleAppender(context, customFields);
         }
@@ -44,4 +70,79 @@ public class LoggingConfiguration {
             addContextListener(context, customFields, loggingProperties);
         }
     }
+
+    private static JHipsterProperties.Logging withoutJsonFormat(JHipsterProperties.Logging loggingProperties) {
+        JHipsterProperties.Logging withoutJsonFormat = new JHipsterProperties.Logging();
+        JHipsterProperties.Logging.Logstash logstashProperties = loggingProperties.getLogstash();
+        withoutJsonFormat.getLogstash().setEnabled(logstashProperties.isEnabled());
+        withoutJsonFormat.getLogstash().setHost(logstashProperties.getHost());
+        withoutJsonFormat.getLogstash().setPort(logstashProperties.getPort());
+        withoutJsonFormat.getLogstash().setRingBufferSize(logstashProperties.getRingBufferSize());
+        return withoutJsonFormat;
+    }
+
+    private static LogSink logSink(ApplicationProperties.Logging.Async asyncProperties) {
+        return switch (asyncProperties.getSink()) {
+            case CONSOLE -> LogSink.console();
+            case FILE -> LogSink.file(Path.of(asyncProperties.getFile()));
+            case TCP -> LogSink.tcp(asyncProperties.getHost(), asyncProperties.getPort());
+        };
+    }
+
+    private static void addAsyncJsonAppender(
+        LoggerContext context,
+        AsyncJsonAppender asyncJsonAppender,
+        ApplicationProperties.Logging.Async asyncProperties,
+        boolean configured
+    ) {
+        Logger rootLogger = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        // The JSON lines replace the console output, which would otherwise be written twice, by the logging threads
+        // The console appender is only there once the configuration is applied, not yet when the context is reset
+        if (configured && asyncProperties.getSink() == ApplicationProperties.Logging.Async.Sink.CONSOLE) {
+            rootLogger.detachAppender(CONSOLE_APPENDER_NAME);
+        }
+        asyncJsonAppender.setContext(context);
+        asyncJsonAppender.start();
+        rootLogger.addAppender(asyncJsonAppender);
+    }
+
+    /**
+     * Adds the asynchronous JSON appender back when the logging configuration is reloaded.
+     */
+    private static final class AsyncJsonAppenderContextListener extends ContextAwareBase implements LoggerContextListener {
+
+        private final AsyncJsonAppender asyncJsonAppender;
+
+        private final ApplicationProperties.Logging.Async asyncProperties;
+
+        private AsyncJsonAppenderContextListener(AsyncJsonAppender asyncJsonAppender, ApplicationProperties.Logging.Async asyncProperties) {
+            this.asyncJsonAppender = asyncJsonAppender;
+            this.asyncProperties = asyncProperties;
+        }
+
+        @Override
+        public boolean isResetResistant() {
+            return true;
+        }
+
+        @Override
+        public void onStart(LoggerContext context) {
+            addAsyncJsonAppender(context, asyncJsonAppender, asyncProperties, true);
+        }
+
+        @Override
+        public void onReset(LoggerContext context) {
+            addAsyncJsonAppender(context, asyncJsonAppender, asyncProperties, false);
+        }
+
+        @Override
+        public void onStop(LoggerContext context) {
+            // Nothing to do.
+        }
+
+        @Override
+        public void onLevelChange(Logger logger, Level level) {
+            // Nothing to do.
+        }
+    }
 }
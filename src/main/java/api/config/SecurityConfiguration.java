@@ -3,8 +3,15 @@ package api.config;
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers.pathMatchers;
 
+import api.management.SecurityMetersService;
 import api.security.AuthoritiesConstants;
+import api.security.LoginRateLimiter;
+import api.security.PasswordHashingService;
+import api.web.filter.LoginRateLimitingWebFilter;
 import api.web.filter.SpaWebFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.util.Map;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
@@ -12,9 +19,12 @@ import org.springframework.security.authentication.UserDetailsRepositoryReactive
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.header.ReferrerPolicyServerHttpHeadersWriter;
 import org.springframework.security.web.server.header.XFrameOptionsServerHttpHeadersWriter.Mode;
@@ -26,28 +36,70 @@ import tech.jhipster.config.JHipsterProperties;
 @EnableReactiveMethodSecurity
 public class SecurityConfiguration {
 
+    private static final String BCRYPT_ENCODING_ID = "bcrypt";
+    private static final String PBKDF2_ENCODING_ID = "pbkdf2";
+
     private final JHipsterProperties jHipsterProperties;
 
-    public SecurityConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public SecurityConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
+    /**
+     * Encodes the new hashes with {@code application.security.password-encoder}, prefixed with the id of their encoder.
+     * <p>
+     * The hashes of the other encoders, or of the same encoder with other parameters, still match but are
+     * {@link PasswordEncoder#upgradeEncoding(String) upgraded} on the next login. The hashes without prefix are the
+     * BCrypt hashes created before the prefix was added.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        ApplicationProperties.Security.PasswordEncoder properties = applicationProperties.getSecurity().getPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(properties.getBcryptStrength());
+        Map<String, PasswordEncoder> encoders = Map.of(
+            BCRYPT_ENCODING_ID,
+            bcrypt,
+            PBKDF2_ENCODING_ID,
+            Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        if (!encoders.containsKey(properties.getEncodingId())) {
+            throw new IllegalArgumentException("Unknown password encoding id: " + properties.getEncodingId());
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(properties.getEncodingId(), encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager(ReactiveUserDetailsService userDetailsService) {
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(
+        ReactiveUserDetailsService userDetailsService,
+        ReactiveUserDetailsPasswordService userDetailsPasswordService,
+        PasswordHashingService passwordHashingService
+    ) {
         UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(
             userDetailsService
         );
-        authenticationManager.setPasswordEncoder(passwordEncoder());
+        authenticationManager.setPasswordEncoder(passwordHashingService.getPasswordEncoder());
+        authenticationManager.setScheduler(passwordHashingService.getScheduler());
+        // Rehash the outdated passwords on login, while the clear text password is known
+        authenticationManager.setUserDetailsPasswordService(userDetailsPasswordService);
         return authenticationManager;
     }
 
     @Bean
-    public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
+    public LoginRateLimiter loginRateLimiter(SecurityMetersService metersService) {
+        return new LoginRateLimiter(applicationProperties.getSecurity().getLoginRateLimit(), metersService, Ticker.systemTicker());
+    }
+
+    @Bean
+    public SecurityWebFilterChain springSecurityFilterChain(
+        ServerHttpSecurity http,
+        LoginRateLimiter loginRateLimiter,
+        ObjectMapper objectMapper
+    ) {
         http
             .securityMatcher(
                 new NegatedServerWebExchangeMatcher(
@@ -57,6 +109,8 @@ public class SecurityConfiguration {
             .cors(withDefaults())
             .csrf(csrf -> csrf.disable())
             .addFilterAfter(new SpaWebFilter(), SecurityWebFiltersOrder.HTTPS_REDIRECT)
+            // Throttles the login attempts before the authentication of the request
+            .addFilterBefore(new LoginRateLimitingWebFilter(loginRateLimiter, objectMapper), SecurityWebFiltersOrder.AUTHENTICATION)
             .headers(headers ->
                 headers
                     .contentSecurityPolicy(csp -> csp.policyDirectives(jHipsterProperties.getSecurity().getContentSecurityPolicy()))
@@ -76,6 +130,7 @@ public class SecurityConfiguration {
                     .pathMatchers("/").permitAll()
                     .pathMatchers("/*.*").permitAll()
                     .pathMatchers("/api/authenticate").permitAll()
+                    .pathMatchers("/api/authenticate/refresh").permitAll()
                     .pathMatchers("/api/register").permitAll()
                     .pathMatchers("/api/activate").permitAll()
                     .pathMatchers("/api/account/reset-password/init").permitAll()
@@ -3,16 +3,20 @@ package api.config;
 import static api.security.SecurityUtils.JWT_ALGORITHM;
 
 import api.management.SecurityMetersService;
+import api.security.CachingReactiveJwtDecoder;
+import api.security.MeteredReactiveJwtDecoder;
+import api.security.RevocationCheckingReactiveJwtDecoder;
+import api.security.TokenRevocationList;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
@@ -20,43 +24,28 @@ import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 @Configuration
 public class SecurityJwtConfiguration {
 
-    private static final Logger LOG = LoggerFactory.getLogger(SecurityJwtConfiguration.class);
-
     @Value("${jhipster.security.authentication.jwt.base64-secret}")
     private String jwtKey;
 
     @Bean
-    public ReactiveJwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public ReactiveJwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        TokenRevocationList tokenRevocationList
+    ) {
+        ReactiveJwtDecoder jwtDecoder = meteredJwtDecoder(metersService);
+        if (applicationProperties.getSecurity().getJwtCache().getMaximumSize() > 0) {
+            jwtDecoder = new CachingReactiveJwtDecoder(jwtDecoder, applicationProperties, meterRegistry);
+        }
+        return new RevocationCheckingReactiveJwtDecoder(jwtDecoder, tokenRevocationList, metersService);
+    }
+
+    private ReactiveJwtDecoder meteredJwtDecoder(SecurityMetersService metersService) {
         NimbusReactiveJwtDecoder jwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
-            try {
-                return jwtDecoder
-                    .decode(token)
-                    .doOnError(e -> {
-                        if (e.getMessage().contains("Jwt expired at")) {
-                            metersService.trackTokenExpired();
-                        } else if (e.getMessage().contains("Failed to validate the token")) {
-                            metersService.trackTokenInvalidSignature();
-                        } else if (
-                            e.getMessage().contains("Invalid JWT serialization:") ||
-                            e.getMessage().contains("Invalid unsecured/JWS/JWE header:")
-                        ) {
-                            metersService.trackTokenMalformed();
-                        } else {
-                            LOG.error("Unknown JWT reactive error {}", e.getMessage());
-                        }
-                    });
-            } catch (Exception e) {
-                if (e.getMessage().contains("An error occurred while attempting to decode the Jwt")) {
-                    metersService.trackTokenMalformed();
-                } else if (e.getMessage().contains("Failed to validate the token")) {
-                    metersService.trackTokenInvalidSignature();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
-                throw e;
-            }
-        };
+        // The only validation of the claims, so that MeteredReactiveJwtDecoder counts its failures as expired tokens
+        jwtDecoder.setJwtValidator(new JwtTimestampValidator());
+        return new MeteredReactiveJwtDecoder(jwtDecoder, metersService);
     }
 
     @Bean
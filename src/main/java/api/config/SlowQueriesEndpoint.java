@@ -0,0 +1,26 @@
+package api.config;
+
+import api.repository.QueryMetrics;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the slow query log of the custom repositories on {@code /management/slowqueries}.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final QueryMetrics queryMetrics;
+
+    public SlowQueriesEndpoint(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @ReadOperation
+    public List<QueryMetrics.SlowQuery> slowQueries() {
+        return queryMetrics.getSlowQueries();
+    }
+}
@@ -0,0 +1,17 @@
+package api.config;
+
+import api.aop.observation.ObservedServiceAspect;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class TracingConfiguration {
+
+    @Bean
+    public ObservedServiceAspect observedServiceAspect(ObservationRegistry observationRegistry) {
+        return new ObservedServiceAspect(observationRegistry);
+    }
+}
@@ -0,0 +1,226 @@
+package api.config.logging;
+
+import api.config.ApplicationProperties;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appender writing the logging events as JSON lines from a dedicated thread, so that the threads which log, e.g. the
+ * Netty event loops, never wait for the console, a file or a socket.
+ * <p>
+ * The events are queued in a bounded lock-free ring buffer, see {@code application.logging.async.queue-size}, and the
+ * writer thread encodes and writes them by batches. When fewer than {@code discarding-threshold} slots are free, the
+ * events at or below {@code drop-level} are dropped, the others are only dropped when the queue is full. The dropped
+ * events are counted by level and reason.
+ */
+public class AsyncJsonAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements MeterBinder {
+
+    public static final String APPENDER_NAME = "ASYNC_JSON";
+
+    public static final String DROPPED_METER_NAME = "logging.events.dropped";
+    public static final String DROPPED_METER_DESCRIPTION =
+        "Indicates the count of the logging events dropped by the asynchronous appender.";
+    public static final String DROPPED_METER_BASE_UNIT = "events";
+    public static final String DROPPED_METER_LEVEL_DIMENSION = "level";
+    public static final String DROPPED_METER_REASON_DIMENSION = "reason";
+
+    public static final String QUEUED_METER_NAME = "logging.events.queued";
+    public static final String QUEUED_METER_DESCRIPTION = "Number of logging events waiting for the writer thread.";
+
+    /**
+     * The levels of the events, by index.
+     */
+    public static final List<Level> LEVELS = List.of(Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Why an event was dropped.
+     */
+    public enum DropReason {
+        /**
+         * The queue was full, or above the discarding threshold for the level of the event.
+         */
+        QUEUE_FULL("queue-full"),
+        /**
+         * The sink failed to write the batch of the event.
+         */
+        SINK_ERROR("sink-error");
+
+        private final String tag;
+
+        DropReason(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private final LogEventRingBuffer<ILoggingEvent> queue;
+
+    private final int discardingThreshold;
+
+    private final int dropLevel;
+
+    private final int batchSize;
+
+    private final JsonLogEncoder encoder;
+
+    private final LogSink sink;
+
+    private final LongAdder[][] dropped = new LongAdder[DropReason.values().length][LEVELS.size()];
+
+    private volatile boolean running;
+
+    private volatile Thread writer;
+
+    private volatile boolean writerParked;
+
+    public AsyncJsonAppender(ApplicationProperties.Logging.Async properties, LogSink sink, Map<String, String> customFields) {
+        this.queue = new LogEventRingBuffer<>(properties.getQueueSize());
+        this.discardingThreshold = Math.min(properties.getDiscardingThreshold(), queue.capacity());
+        this.dropLevel = Level.toLevel(properties.getDropLevel(), Level.INFO).toInt();
+        this.batchSize = Math.max(properties.getBatchSize(), 1);
+        this.encoder = new JsonLogEncoder(customFields);
+        this.sink = sink;
+        for (LongAdder[] droppedByLevel : dropped) {
+            for (int i = 0; i < droppedByLevel.length; i++) {
+                droppedByLevel[i] = new LongAdder();
+            }
+        }
+        setName(APPENDER_NAME);
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        super.start();
+        running = true;
+        Thread thread = new Thread(this::writeLoop, "async-json-logger");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        Thread thread = writer;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            sink.close();
+        } catch (IOException e) {
+            addError("Failed to close the log sink", e);
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        Level level = event.getLevel();
+        if (!queue.offer(event, level.toInt() <= dropLevel ? discardingThreshold : 0)) {
+            dropped[DropReason.QUEUE_FULL.ordinal()][levelIndex(level)].increment();
+            return;
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Returns the number of events dropped since the creation of the appender.
+     *
+     * @param reason why the events were dropped.
+     * @param level the level of the events.
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount(DropReason reason, Level level) {
+        return dropped[reason.ordinal()][levelIndex(level)].sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DropReason reason : DropReason.values()) {
+            for (Level level : LEVELS) {
+                FunctionCounter.builder(DROPPED_METER_NAME, this, appender -> appender.getDroppedCount(reason, level))
+                    .description(DROPPED_METER_DESCRIPTION)
+                    .baseUnit(DROPPED_METER_BASE_UNIT)
+                    .tag(DROPPED_METER_LEVEL_DIMENSION, level.toString())
+                    .tag(DROPPED_METER_REASON_DIMENSION, reason.getTag())
+                    .register(registry);
+            }
+        }
+        Gauge.builder(QUEUED_METER_NAME, this, AsyncJsonAppender::getQueueSize).description(QUEUED_METER_DESCRIPTION).register(registry);
+    }
+
+    private void writeLoop() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(batchSize * 256);
+        while (true) {
+            // The started flag of the appender base is not volatile
+            boolean stillRunning = running;
+            if (queue.drainTo(batch, batchSize) > 0) {
+                write(batch, buffer);
+                batch.clear();
+            } else if (!stillRunning) {
+                // The queue is drained after the appender is stopped
+                return;
+            } else {
+                writerParked = true;
+                if (queue.size() == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                writerParked = false;
+            }
+        }
+    }
+
+    private void write(List<ILoggingEvent> batch, ByteArrayOutputStream buffer) {
+        buffer.reset();
+        try {
+            encoder.encode(batch, buffer);
+            sink.write(buffer);
+        } catch (IOException | RuntimeException e) {
+            for (ILoggingEvent event : batch) {
+                dropped[DropReason.SINK_ERROR.ordinal()][levelIndex(event.getLevel())].increment();
+            }
+            addError("Failed to write " + batch.size() + " logging event(s)", e);
+        }
+    }
+
+    private static int levelIndex(Level level) {
+        return Math.min(Math.max(level.toInt() / Level.DEBUG_INT, 0), LEVELS.size() - 1);
+    }
+}
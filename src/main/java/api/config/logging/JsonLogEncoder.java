@@ -0,0 +1,68 @@
+package api.config.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a batch of logging events as JSON lines, with the field names of the Logstash encoder.
+ */
+final class JsonLogEncoder {
+
+    private final JsonFactory jsonFactory = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+    private final Map<String, String> customFields;
+
+    /**
+     * @param customFields the fields added to every event, e.g. {@code app_name}.
+     */
+    JsonLogEncoder(Map<String, String> customFields) {
+        this.customFields = Map.copyOf(customFields);
+    }
+
+    /**
+     * Encodes the events, one JSON object per line, with a single generator.
+     *
+     * @param events the events.
+     * @param out the stream the lines are written to.
+     * @throws IOException if a line could not be written.
+     */
+    void encode(List<ILoggingEvent> events, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            for (ILoggingEvent event : events) {
+                encode(event, generator);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void encode(ILoggingEvent event, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("@timestamp", DateTimeFormatter.ISO_INSTANT.format(event.getInstant()));
+        generator.writeStringField("@version", "1");
+        generator.writeStringField("message", event.getFormattedMessage());
+        generator.writeStringField("logger_name", event.getLoggerName());
+        generator.writeStringField("thread_name", event.getThreadName());
+        generator.writeStringField("level", event.getLevel().toString());
+        generator.writeNumberField("level_value", event.getLevel().toInt());
+        IThrowableProxy throwableProxy = event.getThrowableProxy();
+        if (throwableProxy != null) {
+            generator.writeStringField("stack_trace", ThrowableProxyUtil.asString(throwableProxy));
+        }
+        for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, String> entry : customFields.entrySet()) {
+            generator.writeStringField(entry.getKey(), entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,102 @@
+package api.config.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of the events waiting for the writer thread of {@link AsyncJsonAppender}.
+ * <p>
+ * The logging threads offer the events concurrently, and a single thread drains them. Each slot has a sequence number
+ * telling whether it is free for the producer of a position, or filled for the consumer: an offer is a compare-and-set
+ * on the tail, it never waits for the consumer.
+ */
+final class LogEventRingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final Object[] elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    LogEventRingBuffer(int minCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(minCapacity, 2) - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Offers an event, unless fewer than {@code reserved} slots are free.
+     *
+     * @param element the event.
+     * @param reserved the number of slots which must stay free for other events.
+     * @return {@code true} if the event was queued.
+     */
+    boolean offer(E element, int reserved) {
+        long position = tail.get();
+        while (true) {
+            if (position - head.get() >= capacity - reserved) {
+                return false;
+            }
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The consumer has not freed the slot yet
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves the queued events to the given list, from the single consumer thread.
+     *
+     * @param batch the list the events are added to.
+     * @param maxElements the maximum number of events moved.
+     * @return the number of events moved.
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(List<E> batch, int maxElements) {
+        long position = head.get();
+        int count = 0;
+        while (count < maxElements) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            batch.add((E) elements[index]);
+            elements[index] = null;
+            sequences.set(index, position + capacity);
+            position++;
+            count++;
+        }
+        head.set(position);
+        return count;
+    }
+
+    int size() {
+        return (int) Math.max(tail.get() - head.get(), 0);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
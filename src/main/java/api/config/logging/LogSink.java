@@ -0,0 +1,136 @@
+package api.config.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of the batches of JSON lines written by {@link AsyncJsonAppender}.
+ * <p>
+ * The sinks are only used by the writer thread. They open their stream on the first batch, and again after a failure
+ * or {@link #close()}, so an appender can be stopped and restarted with the same sink.
+ */
+public interface LogSink extends Closeable {
+    /**
+     * Timeout of the connection of the TCP sink, in milliseconds.
+     */
+    int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Writes a batch of JSON lines.
+     *
+     * @param batch the encoded events.
+     * @throws IOException if the batch could not be written, its events are lost.
+     */
+    void write(ByteArrayOutputStream batch) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        // Nothing to close by default
+    }
+
+    /**
+     * Writes to the standard output, without the lock of {@link System#out}.
+     *
+     * @return the console sink.
+     */
+    static LogSink console() {
+        OutputStream out = new FileOutputStream(FileDescriptor.out);
+        return batch -> {
+            batch.writeTo(out);
+            out.flush();
+        };
+    }
+
+    /**
+     * Appends to a file, created with its parent directories if needed.
+     *
+     * @param file the file.
+     * @return the file sink.
+     */
+    static LogSink file(Path file) {
+        return new StreamLogSink() {
+            @Override
+            protected OutputStream open() throws IOException {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                return Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        };
+    }
+
+    /**
+     * Sends to a TCP socket, e.g. the JSON lines input of Logstash, reconnecting after a failure.
+     *
+     * @param host the host.
+     * @param port the port.
+     * @return the TCP sink.
+     */
+    static LogSink tcp(String host, int port) {
+        return new StreamLogSink() {
+            private Socket socket;
+
+            @Override
+            protected OutputStream open() throws IOException {
+                socket = new Socket();
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+                return socket.getOutputStream();
+            }
+
+            @Override
+            public synchronized void close() throws IOException {
+                super.close();
+                if (socket != null) {
+                    socket.close();
+                    socket = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * A sink writing to a stream opened on demand, and closed after a failure.
+     */
+    abstract class StreamLogSink implements LogSink {
+
+        private OutputStream out;
+
+        protected abstract OutputStream open() throws IOException;
+
+        @Override
+        public synchronized void write(ByteArrayOutputStream batch) throws IOException {
+            try {
+                if (out == null) {
+                    out = open();
+                }
+                batch.writeTo(out);
+                out.flush();
+            } catch (IOException e) {
+                try {
+                    close();
+                } catch (IOException closeException) {
+                    e.addSuppressed(closeException);
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (out != null) {
+                OutputStream closed = out;
+                out = null;
+                closed.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Asynchronous JSON logging.
+ */
+package api.config.logging;
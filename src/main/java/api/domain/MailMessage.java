@@ -0,0 +1,208 @@
+package api.domain;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A mail waiting in the outbox to be sent.
+ * <p>
+ * The mail is queued in the transaction of the change it notifies, and deleted once sent. A mail that could not be sent
+ * is sent again at {@code nextAttemptAt}, until it has been attempted the maximum number of times.
+ */
+@Table("jhi_mail_message")
+public class MailMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column("recipient")
+    private String recipient;
+
+    @NotNull
+    @Size(max = 255)
+    @Column("subject")
+    private String subject;
+
+    @NotNull
+    @Column("content")
+    private String content;
+
+    @NotNull
+    @Column("multipart")
+    private boolean multipart;
+
+    @NotNull
+    @Column("html")
+    private boolean html;
+
+    @NotNull
+    @Column("attempts")
+    private int attempts;
+
+    @NotNull
+    @Column("next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Size(max = 255)
+    @Column("last_error")
+    private String lastError;
+
+    @NotNull
+    @Column("created_at")
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public MailMessage id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public MailMessage recipient(String recipient) {
+        this.setRecipient(recipient);
+        return this;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public MailMessage subject(String subject) {
+        this.setSubject(subject);
+        return this;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public MailMessage content(String content) {
+        this.setContent(content);
+        return this;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public boolean isMultipart() {
+        return multipart;
+    }
+
+    public MailMessage multipart(boolean multipart) {
+        this.setMultipart(multipart);
+        return this;
+    }
+
+    public void setMultipart(boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public boolean isHtml() {
+        return html;
+    }
+
+    public MailMessage html(boolean html) {
+        this.setHtml(html);
+        return this;
+    }
+
+    public void setHtml(boolean html) {
+        this.html = html;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public MailMessage attempts(int attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public MailMessage nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public MailMessage lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public MailMessage createdAt(Instant createdAt) {
+        this.setCreatedAt(createdAt);
+        return this;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailMessage{" +
+            "id=" + getId() +
+            ", recipient='" + getRecipient() + "'" +
+            ", subject='" + getSubject() + "'" +
+            ", multipart='" + isMultipart() + "'" +
+            ", html='" + isHtml() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            ", lastError='" + getLastError() + "'" +
+            ", createdAt='" + getCreatedAt() + "'" +
+            "}";
+    }
+}
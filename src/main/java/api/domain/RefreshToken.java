@@ -0,0 +1,149 @@
+package api.domain;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A refresh token, renewing the JWT of a user without their password.
+ * <p>
+ * Only the SHA-256 hash of the token is stored. A token is used once: renewing the JWT replaces it with a new token of
+ * the same {@code familyId}, and a token used again revokes all the tokens of its family.
+ */
+@Table("jhi_refresh_token")
+public class RefreshToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @NotNull
+    @Size(min = 64, max = 64)
+    @Column("token_hash")
+    private String tokenHash;
+
+    @NotNull
+    @Column("user_id")
+    private Long userId;
+
+    @NotNull
+    @Size(max = 36)
+    @Column("family_id")
+    private String familyId;
+
+    @NotNull
+    @Column("remember_me")
+    private boolean rememberMe;
+
+    @NotNull
+    @Column("used")
+    private boolean used;
+
+    @NotNull
+    @Column("expires_at")
+    private Instant expiresAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public RefreshToken tokenHash(String tokenHash) {
+        this.setTokenHash(tokenHash);
+        return this;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public RefreshToken userId(Long userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public RefreshToken familyId(String familyId) {
+        this.setFamilyId(familyId);
+        return this;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public boolean isRememberMe() {
+        return rememberMe;
+    }
+
+    public RefreshToken rememberMe(boolean rememberMe) {
+        this.setRememberMe(rememberMe);
+        return this;
+    }
+
+    public void setRememberMe(boolean rememberMe) {
+        this.rememberMe = rememberMe;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public RefreshToken used(boolean used) {
+        this.setUsed(used);
+        return this;
+    }
+
+    public void setUsed(boolean used) {
+        this.used = used;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RefreshToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+            "id=" + getId() +
+            ", userId=" + getUserId() +
+            ", familyId='" + getFamilyId() + "'" +
+            ", rememberMe='" + isRememberMe() + "'" +
+            ", used='" + isUsed() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,112 @@
+package api.domain;
+
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A revocation of JWTs before their expiration: either of the token with the given {@code jti}, or of all the tokens of
+ * the user with the given login issued until {@code revokedAt}.
+ * <p>
+ * The revocation is kept until {@code expiresAt}, when all the tokens it revokes have expired.
+ */
+@Table("jhi_revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @Size(max = 36)
+    @Column("jti")
+    private String jti;
+
+    @Size(max = 50)
+    @Column("login")
+    private String login;
+
+    @NotNull
+    @Column("revoked_at")
+    private Instant revokedAt;
+
+    @NotNull
+    @Column("expires_at")
+    private Instant expiresAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public RevokedToken jti(String jti) {
+        this.setJti(jti);
+        return this;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public RevokedToken login(String login) {
+        this.setLogin(login);
+        return this;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public RevokedToken revokedAt(Instant revokedAt) {
+        this.setRevokedAt(revokedAt);
+        return this;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RevokedToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "id=" + getId() +
+            ", jti='" + getJti() + "'" +
+            ", login='" + getLogin() + "'" +
+            ", revokedAt='" + getRevokedAt() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            "}";
+    }
+}
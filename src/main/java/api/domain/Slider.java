@@ -3,6 +3,7 @@ package api.domain;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -29,6 +30,10 @@ public class Slider implements Serializable {
     @Column("user_id")
     private Long userId;
 
+    @Version
+    @Column("version")
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -79,6 +84,19 @@ public class Slider implements Serializable {
         this.userId = user;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Slider version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -34,7 +34,7 @@ public class User extends AbstractAuditingEntity<Long> implements Serializable {
 
     @JsonIgnore
     @NotNull
-    @Size(min = 60, max = 60)
+    @Size(min = 60, max = 255)
     @Column("password_hash")
     private String password;
 
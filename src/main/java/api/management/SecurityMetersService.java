@@ -13,16 +13,36 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String REVOKED_TOKENS_METER_NAME = "security.authentication.revoked-tokens";
+    public static final String REVOKED_TOKENS_METER_DESCRIPTION = "Indicates the count of the revoked tokens presented by the clients.";
+
+    public static final String THROTTLED_LOGINS_METER_NAME = "security.authentication.throttled-logins";
+    public static final String THROTTLED_LOGINS_METER_DESCRIPTION =
+        "Indicates the count of the login attempts rejected before checking the credentials.";
+    public static final String THROTTLED_LOGINS_METER_BASE_UNIT = "attempts";
+    public static final String THROTTLED_LOGINS_METER_LIMIT_DIMENSION = "limit";
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenRevokedCounter;
+    private final Counter loginThrottledByAddressCounter;
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginLockedOutCounter;
 
     public SecurityMetersService(MeterRegistry registry) {
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenRevokedCounter = Counter.builder(REVOKED_TOKENS_METER_NAME)
+            .baseUnit(INVALID_TOKENS_METER_BASE_UNIT)
+            .description(REVOKED_TOKENS_METER_DESCRIPTION)
+            .register(registry);
+        this.loginThrottledByAddressCounter = throttledLoginsCounterForLimitBuilder("address").register(registry);
+        this.loginThrottledByLoginCounter = throttledLoginsCounterForLimitBuilder("login").register(registry);
+        this.loginLockedOutCounter = throttledLoginsCounterForLimitBuilder("lockout").register(registry);
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +52,13 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Counter.Builder throttledLoginsCounterForLimitBuilder(String limit) {
+        return Counter.builder(THROTTLED_LOGINS_METER_NAME)
+            .baseUnit(THROTTLED_LOGINS_METER_BASE_UNIT)
+            .description(THROTTLED_LOGINS_METER_DESCRIPTION)
+            .tag(THROTTLED_LOGINS_METER_LIMIT_DIMENSION, limit);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +74,20 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenRevoked() {
+        this.tokenRevokedCounter.increment();
+    }
+
+    public void trackLoginThrottledByAddress() {
+        this.loginThrottledByAddressCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginLockedOut() {
+        this.loginLockedOutCounter.increment();
+    }
 }
@@ -0,0 +1,171 @@
+package api.management;
+
+import api.config.ApplicationProperties;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanReporter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the most recent finished spans in memory, to break the latency of the recent requests down without a tracing
+ * backend.
+ * <p>
+ * The spans are reported by the tracer, next to the OTLP exporter when {@code management.otlp.tracing.endpoint} is set,
+ * and kept in a fixed size ring buffer, see {@code application.tracing.buffer-size}: the oldest spans are overwritten
+ * first, so the oldest traces may be incomplete.
+ */
+@Component
+public class SpanRingBuffer implements SpanReporter {
+
+    private final RecordedSpan[] spans;
+
+    private int next;
+
+    private int size;
+
+    public SpanRingBuffer(ApplicationProperties applicationProperties) {
+        this.spans = new RecordedSpan[Math.max(applicationProperties.getTracing().getBufferSize(), 0)];
+    }
+
+    @Override
+    public void report(FinishedSpan span) {
+        if (spans.length == 0) {
+            return;
+        }
+        RecordedSpan recordedSpan = new RecordedSpan(
+            span.getTraceId(),
+            span.getSpanId(),
+            span.getParentId(),
+            span.getName(),
+            span.getKind() != null ? span.getKind().name() : null,
+            span.getStartTimestamp(),
+            span.getEndTimestamp(),
+            span.getError() != null ? span.getError().toString() : null,
+            Map.copyOf(span.getTags())
+        );
+        synchronized (spans) {
+            spans[next] = recordedSpan;
+            next = (next + 1) % spans.length;
+            size = Math.min(size + 1, spans.length);
+        }
+    }
+
+    /**
+     * Returns the recent traces, with their spans.
+     *
+     * @param minDuration the duration from which a trace is returned.
+     * @param limit the maximum number of traces returned.
+     * @return the recent traces at least as long as {@code minDuration}, the most recent first.
+     */
+    public List<Trace> getTraces(Duration minDuration, int limit) {
+        Map<String, List<RecordedSpan>> spansByTrace = snapshot()
+            .stream()
+            .collect(Collectors.groupingBy(RecordedSpan::traceId, LinkedHashMap::new, Collectors.toList()));
+        return spansByTrace
+            .entrySet()
+            .stream()
+            .map(entry -> trace(entry.getKey(), entry.getValue()))
+            .filter(trace -> trace.duration().compareTo(minDuration) >= 0)
+            .sorted(Comparator.comparing(Trace::start).reversed())
+            .limit(limit)
+            .toList();
+    }
+
+    private List<RecordedSpan> snapshot() {
+        synchronized (spans) {
+            List<RecordedSpan> snapshot = new ArrayList<>(size);
+            int oldest = (next - size + spans.length) % spans.length;
+            for (int i = 0; i < size; i++) {
+                snapshot.add(spans[(oldest + i) % spans.length]);
+            }
+            return snapshot;
+        }
+    }
+
+    private static Trace trace(String traceId, List<RecordedSpan> recordedSpans) {
+        Set<String> spanIds = recordedSpans.stream().map(RecordedSpan::spanId).collect(Collectors.toSet());
+        RecordedSpan[] byStart = recordedSpans.toArray(RecordedSpan[]::new);
+        Arrays.sort(byStart, Comparator.comparing(RecordedSpan::start));
+        Instant start = byStart[0].start();
+        Instant end = recordedSpans.stream().map(RecordedSpan::end).max(Comparator.naturalOrder()).orElse(start);
+        // The root is the first span whose parent is not in the buffer: the parent of a request span is in the caller
+        String name = Arrays.stream(byStart)
+            .filter(span -> !spanIds.contains(span.parentId()))
+            .findFirst()
+            .map(RecordedSpan::name)
+            .orElse(byStart[0].name());
+        List<Span> traceSpans = Arrays.stream(byStart)
+            .map(span ->
+                new Span(
+                    span.spanId(),
+                    spanIds.contains(span.parentId()) ? span.parentId() : null,
+                    span.name(),
+                    span.kind(),
+                    Duration.between(start, span.start()),
+                    Duration.between(span.start(), span.end()),
+                    span.error(),
+                    span.tags()
+                )
+            )
+            .toList();
+        return new Trace(traceId, name, start, Duration.between(start, end), traceSpans);
+    }
+
+    /**
+     * A finished span, copied from the tracer.
+     */
+    private record RecordedSpan(
+        String traceId,
+        String spanId,
+        String parentId,
+        String name,
+        String kind,
+        Instant start,
+        Instant end,
+        String error,
+        Map<String, String> tags
+    ) {}
+
+    /**
+     * A trace, as far as it is in the buffer.
+     *
+     * @param traceId the id of the trace.
+     * @param name the name of the root span, e.g. {@code http get /api/sliders}.
+     * @param start the start of the first span.
+     * @param duration the time from the start of the first span to the end of the last one.
+     * @param spans the spans, by start.
+     */
+    public record Trace(String traceId, String name, Instant start, Duration duration, List<Span> spans) {}
+
+    /**
+     * A span of a trace.
+     *
+     * @param spanId the id of the span.
+     * @param parentId the id of the parent span, or {@code null} if it is not in the trace.
+     * @param name the name of the span.
+     * @param kind {@code SERVER}, {@code CLIENT}, ... or {@code null} for a local span.
+     * @param offset the time from the start of the trace to the start of the span.
+     * @param duration the duration of the span.
+     * @param error the error which ended the span, or {@code null}.
+     * @param tags the tags of the span.
+     */
+    public record Span(
+        String spanId,
+        String parentId,
+        String name,
+        String kind,
+        Duration offset,
+        Duration duration,
+        String error,
+        Map<String, String> tags
+    ) {}
+}
@@ -0,0 +1,32 @@
+package api.management;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the recent traces of {@link SpanRingBuffer} on {@code /management/traces}.
+ * <p>
+ * E.g. {@code /management/traces?minDuration=200ms} returns the requests slower than 200 ms, with the time spent in the
+ * security filter chain, the services and the R2DBC statements.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final SpanRingBuffer spanRingBuffer;
+
+    public TracesEndpoint(SpanRingBuffer spanRingBuffer) {
+        this.spanRingBuffer = spanRingBuffer;
+    }
+
+    @ReadOperation
+    public List<SpanRingBuffer.Trace> traces(@Nullable Duration minDuration, @Nullable Integer limit) {
+        return spanRingBuffer.getTraces(minDuration != null ? minDuration : Duration.ZERO, limit != null ? limit : DEFAULT_LIMIT);
+    }
+}
@@ -0,0 +1,171 @@
+package api.repository;
+
+import java.lang.reflect.Array;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import tech.jhipster.service.ColumnConverterReactive;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.DurationFilter;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.InstantFilter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+import tech.jhipster.service.filter.ZonedDateTimeFilter;
+
+/**
+ * Builds the where clause of the criteria queries, like {@link tech.jhipster.service.ConditionBuilder}, but with the
+ * filter values bound as parameters instead of rendered as SQL literals.
+ * <p>
+ * Every value gets its own bind marker, {@code :criteria1}, {@code :criteria2}..., in the order the filters are added.
+ * The markers are expanded to the Postgres {@code $n} markers by the {@link org.springframework.r2dbc.core.DatabaseClient},
+ * so all the queries of one filter shape share the same statement whatever the values. {@code in} and {@code notIn}
+ * are bound as a single array through {@code = ANY(...)} and {@code != ALL(...)}, so the shape does not depend on the
+ * number of values either.
+ */
+public class CriteriaConditionBuilder {
+
+    static final String PARAMETER_PREFIX = "criteria";
+
+    private final List<Condition> allFilters = new ArrayList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
+    private final ColumnConverterReactive columnConverter;
+
+    public CriteriaConditionBuilder(ColumnConverterReactive columnConverter) {
+        this.columnConverter = columnConverter;
+    }
+
+    /**
+     * Adds the conditions of the given filter on the given column.
+     * @param filter the filter of a criteria.
+     * @param column the filtered column.
+     * @param <X> the type of the filtered field.
+     */
+    public <X> void buildFilterConditionForField(Filter<X> filter, Column column) {
+        if (filter instanceof DurationFilter durationFilter) {
+            buildRangeConditions(durationFilter, column, Long.class);
+            buildGeneralConditions(durationFilter, column, Long.class);
+        } else if (filter instanceof ZonedDateTimeFilter zonedDateTimeFilter) {
+            buildRangeConditions(zonedDateTimeFilter, column, LocalDateTime.class);
+            buildGeneralConditions(zonedDateTimeFilter, column, LocalDateTime.class);
+        } else if (filter instanceof InstantFilter instantFilter) {
+            buildRangeConditions(instantFilter, column, LocalDateTime.class);
+            buildGeneralConditions(instantFilter, column, LocalDateTime.class);
+        } else if (filter instanceof RangeFilter<?> rangeFilter) {
+            buildRangeConditions(rangeFilter, column, null);
+            buildGeneralConditions(filter, column, null);
+        } else if (filter instanceof StringFilter stringFilter) {
+            buildStringConditions(stringFilter, column);
+            buildGeneralConditions(filter, column, null);
+        } else if (filter instanceof BooleanFilter) {
+            buildGeneralConditions(filter, column, Boolean.class);
+        } else {
+            buildGeneralConditions(filter, column, null);
+        }
+    }
+
+    /**
+     * @return the conjunction of all the conditions, or null if no filter is set.
+     */
+    public Condition buildConditions() {
+        return allFilters.stream().reduce(null, (left, right) -> left == null ? right : left.and(right));
+    }
+
+    /**
+     * @return the values to bind, by parameter name, in the order of their markers.
+     */
+    public Map<String, Object> getBindings() {
+        return Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Binds the values of the conditions to the given statement.
+     * @param spec the statement rendered with {@link #buildConditions()}.
+     * @return the statement with the values bound.
+     */
+    public GenericExecuteSpec bind(GenericExecuteSpec spec) {
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec;
+    }
+
+    private <X extends Comparable<? super X>> void buildRangeConditions(RangeFilter<X> filter, Column column, Class<?> targetClass) {
+        Function<Object, Object> converter = columnValueConverter(targetClass);
+        if (filter.getGreaterThan() != null) {
+            allFilters.add(Conditions.isGreater(column, bindMarker(converter.apply(filter.getGreaterThan()))));
+        }
+        if (filter.getLessThan() != null) {
+            allFilters.add(Conditions.isLess(column, bindMarker(converter.apply(filter.getLessThan()))));
+        }
+        if (filter.getGreaterThanOrEqual() != null) {
+            allFilters.add(Conditions.isGreaterOrEqualTo(column, bindMarker(converter.apply(filter.getGreaterThanOrEqual()))));
+        }
+        if (filter.getLessThanOrEqual() != null) {
+            allFilters.add(Conditions.isLessOrEqualTo(column, bindMarker(converter.apply(filter.getLessThanOrEqual()))));
+        }
+    }
+
+    private void buildStringConditions(StringFilter filter, Column column) {
+        // Same semantic as tech.jhipster.service.ConditionBuilder: the value is used as the LIKE pattern
+        if (filter.getContains() != null) {
+            allFilters.add(Conditions.like(column, bindMarker(filter.getContains())));
+        }
+        if (filter.getDoesNotContain() != null) {
+            allFilters.add(Conditions.notLike(column, bindMarker(filter.getDoesNotContain())));
+        }
+    }
+
+    private <X> void buildGeneralConditions(Filter<X> filter, Column column, Class<?> targetClass) {
+        Function<Object, Object> converter = columnValueConverter(targetClass);
+        if (filter.getEquals() != null) {
+            allFilters.add(Conditions.isEqual(column, bindMarker(converter.apply(filter.getEquals()))));
+        }
+        if (filter.getNotEquals() != null) {
+            allFilters.add(Conditions.isNotEqual(column, bindMarker(converter.apply(filter.getNotEquals()))));
+        }
+        if (filter.getIn() != null && !filter.getIn().isEmpty()) {
+            allFilters.add(Conditions.isEqual(column, arrayBindMarker("ANY", filter.getIn(), converter)));
+        }
+        if (filter.getNotIn() != null && !filter.getNotIn().isEmpty()) {
+            allFilters.add(Conditions.isNotEqual(column, arrayBindMarker("ALL", filter.getNotIn(), converter)));
+        }
+        if (filter.getSpecified() != null) {
+            allFilters.add(filter.getSpecified() ? Conditions.isNull(column).not() : Conditions.isNull(column));
+        }
+    }
+
+    private Function<Object, Object> columnValueConverter(Class<?> targetClass) {
+        return targetClass != null ? value -> columnConverter.convert(value, targetClass) : Function.identity();
+    }
+
+    private Expression bindMarker(Object value) {
+        return SQL.bindMarker(":" + addBinding(value));
+    }
+
+    private Expression arrayBindMarker(String quantifier, List<?> values, Function<Object, Object> converter) {
+        List<Object> converted = values.stream().map(converter).toList();
+        Object array = Array.newInstance(converted.get(0).getClass(), converted.size());
+        for (int i = 0; i < converted.size(); i++) {
+            Array.set(array, i, converted.get(i));
+        }
+        return Expressions.just(quantifier + "(:" + addBinding(array) + ")");
+    }
+
+    private String addBinding(Object value) {
+        String name = PARAMETER_PREFIX + (bindings.size() + 1);
+        bindings.put(name, value);
+        return name;
+    }
+}
@@ -2,7 +2,12 @@ package api.repository;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -10,17 +15,24 @@ import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
 import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.PreparedOperation;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
@@ -52,16 +64,67 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Describes a keyset (seek) page: the predicate which starts the page right after a cursor, the matching order and
+     * the values to bind to the predicate.
+     */
+    public static class Seek {
+
+        final Condition condition;
+        final List<OrderByField> orderBy;
+        final Map<String, Object> bindings;
+
+        Seek(Condition condition, List<OrderByField> orderBy, Map<String, Object> bindings) {
+            this.condition = condition;
+            this.orderBy = orderBy;
+            this.bindings = bindings;
+        }
+
+        String shape() {
+            return orderBy + (condition != null ? " " + condition : "");
+        }
+
+        public Map<String, Object> getBindings() {
+            return bindings;
+        }
+    }
+
+    /**
+     * Shape of a rendered select: the select fragment (entity and joins), the structure of the condition, the order and
+     * whether the rows are paged. The values are not part of it, they are bound as parameters.
+     */
+    private record SelectShape(String queryName, String condition, Object order, boolean paged) {}
+
+    public static final String SEEK_VALUE_PARAMETER = "seek_value";
+    public static final String SEEK_ID_PARAMETER = "seek_id";
+    public static final String LIMIT_PARAMETER = "limit";
+    public static final String OFFSET_PARAMETER = "offset";
+
+    /**
+     * Maximum number of rendered selects kept by {@link #createSelect(String, Supplier, Class, Pageable, Condition)}.
+     * Selects of new shapes are still rendered once the cache is full, but no longer cached.
+     */
+    static final int SQL_CACHE_SIZE = 256;
+
+    private final Map<SelectShape, String> sqlCache = new ConcurrentHashMap<>();
+
     private final SqlRenderer sqlRenderer;
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
+    private final QueryMetrics queryMetrics;
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        QueryMetrics queryMetrics
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        this.queryMetrics = queryMetrics;
     }
 
     /**
@@ -128,6 +191,115 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Returns the SQL select statement of the given shape, rendering it on first use only.
+     * <p>
+     * The paging values are not rendered: the statement ends with {@code LIMIT :limit OFFSET :offset} when {@code pageable}
+     * is paged, see {@link #bindPaging(GenericExecuteSpec, Pageable)}. The values of {@code where} must be bind markers as
+     * well, so the same statement is sent - and its prepared statement reused - for every page and every value.
+     * @param queryName the name of the select fragment, it identifies the entity and the joined tables.
+     * @param selectFrom creates the select fragment, only called when the statement is not cached yet.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql select statement
+     */
+    public String createSelect(
+        String queryName,
+        Supplier<? extends SelectWhere> selectFrom,
+        Class<?> entityType,
+        Pageable pageable,
+        Condition where
+    ) {
+        Sort sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+        boolean paged = pageable != null && pageable.isPaged();
+        return getOrRender(new SelectShape(queryName, Objects.toString(where, null), sort, paged), () -> {
+            SelectOrdered select = where != null ? selectFrom.get().where(where) : selectFrom.get();
+            String sql = createSelectImpl(select, entityType, sort);
+            return paged ? sql + " LIMIT :" + LIMIT_PARAMETER + " OFFSET :" + OFFSET_PARAMETER : sql;
+        });
+    }
+
+    /**
+     * Returns the SQL select statement returning the keyset page described by the given {@link Seek}, rendering it on
+     * first use only. The statement ends with {@code LIMIT :limit}, bound with the other {@link Seek#getBindings() bindings}.
+     * @param queryName the name of the select fragment, it identifies the entity and the joined tables.
+     * @param selectFrom creates the select fragment, only called when the statement is not cached yet.
+     * @param seek the keyset page, created by {@link #createSeek(Table, Class, Sort.Order, int, KeysetCursor)}.
+     * @param where condition or null. The condition to apply as where clause, in addition to the seek predicate.
+     * @return sql select statement
+     */
+    public String createSelect(String queryName, Supplier<? extends SelectWhere> selectFrom, Seek seek, Condition where) {
+        return getOrRender(new SelectShape(queryName, Objects.toString(where, null), seek.shape(), true), () -> {
+            Condition condition = and(where, seek.condition);
+            SelectOrdered select = condition != null ? selectFrom.get().where(condition) : selectFrom.get();
+            return createSelect(select.orderBy(seek.orderBy).build()) + " LIMIT :" + LIMIT_PARAMETER;
+        });
+    }
+
+    /**
+     * Binds the paging values of a statement created by {@link #createSelect(String, Supplier, Class, Pageable, Condition)}.
+     * @param spec the statement.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @return the statement with the paging values bound.
+     */
+    public GenericExecuteSpec bindPaging(GenericExecuteSpec spec, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return spec;
+        }
+        return spec.bind(LIMIT_PARAMETER, pageable.getPageSize()).bind(OFFSET_PARAMETER, pageable.getOffset());
+    }
+
+    /**
+     * Creates a keyset (seek) page for the given sort order.
+     * <p>
+     * The rows are ordered by the sorted column, then by id in the same direction. The page starts right after the cursor
+     * through a {@code (sort_col, id) > (:seek_value, :seek_id)} row value comparison, so the database can seek in an index
+     * instead of reading and discarding all the rows before an offset.
+     * @param table the aliased table of the entity.
+     * @param entityType the entity type which holds the column names and types.
+     * @param order the sort order, or null to sort by id.
+     * @param pageSize the maximum number of rows to return.
+     * @param after the cursor of the previous page, or null for the first page.
+     * @return the keyset page, with the values which must be bound to the statement.
+     */
+    public Seek createSeek(Table table, Class<?> entityType, Sort.Order order, int pageSize, KeysetCursor after) {
+        RelationalPersistentEntity<?> entity = getPersistentEntity(entityType);
+        Assert.notNull(entity, "entityType is not mapped");
+        RelationalPersistentProperty idProperty = entity.getRequiredIdProperty();
+        RelationalPersistentProperty sortProperty = order == null || order.getProperty().equals(idProperty.getName())
+            ? idProperty
+            : entity.getRequiredPersistentProperty(order.getProperty());
+        boolean ascending = order == null || order.isAscending();
+
+        Column idColumn = table.column(idProperty.getColumnName());
+        List<OrderByField> orderBy = new ArrayList<>();
+        if (sortProperty != idProperty) {
+            orderBy.add(withDirection(OrderByField.from(table.column(sortProperty.getColumnName())), ascending));
+        }
+        orderBy.add(withDirection(OrderByField.from(idColumn), ascending));
+        if (after == null) {
+            return new Seek(null, orderBy, Map.of(LIMIT_PARAMETER, pageSize));
+        }
+
+        Assert.isTrue(sortProperty.getName().equals(after.getProperty()), "cursor does not match the sort property");
+        Map<String, Object> bindings = new HashMap<>();
+        bindings.put(LIMIT_PARAMETER, pageSize);
+        bindings.put(SEEK_ID_PARAMETER, after.getId());
+        Expression left = idColumn;
+        Expression right = Expressions.just(":" + SEEK_ID_PARAMETER);
+        if (sortProperty != idProperty) {
+            bindings.put(
+                SEEK_VALUE_PARAMETER,
+                r2dbcEntityTemplate.getConverter().getConversionService().convert(after.getValue(), sortProperty.getType())
+            );
+            left = Expressions.just("(" + qualifiedName(table, sortProperty) + ", " + qualifiedName(table, idProperty) + ")");
+            right = Expressions.just("(:" + SEEK_VALUE_PARAMETER + ", :" + SEEK_ID_PARAMETER + ")");
+        }
+        Condition condition = ascending ? Conditions.isGreater(left, right) : Conditions.isLess(left, right);
+        return new Seek(condition, orderBy, bindings);
+    }
+
     /**
      * Generate an actual SQL from the given {@link Select}.
      * @param select a representation of a select statement.
@@ -153,7 +325,7 @@ public class EntityManager {
      */
     public Mono<Long> deleteAll(String tableName) {
         StatementMapper.DeleteSpec delete = statementMapper.createDelete(tableName);
-        return r2dbcEntityTemplate.getDatabaseClient().sql(statementMapper.getMappedObject(delete)).fetch().rowsUpdated();
+        return executeUpdate(tableName + ".deleteAll", statementMapper.getMappedObject(delete));
     }
 
     /**
@@ -184,7 +356,7 @@ public class EntityManager {
                         .withColumn(table.idColumn, Parameter.from(entityId))
                         .withColumn(table.referenceColumn, Parameter.from(referenceId));
 
-                    return r2dbcEntityTemplate.getDatabaseClient().sql(statementMapper.getMappedObject(insert)).fetch().rowsUpdated();
+                    return executeUpdate(table.tableName + ".insert", statementMapper.getMappedObject(insert));
                 })
                 .collectList()
                 .map((List<Long> updates) -> updates.stream().reduce(Long::sum).orElse(0l))
@@ -198,7 +370,15 @@ public class EntityManager {
             .getStatementMapper()
             .createDelete(table.tableName)
             .withCriteria(Criteria.from(Criteria.where(table.idColumn).is(entityId)));
-        return r2dbcEntityTemplate.getDatabaseClient().sql(statementMapper.getMappedObject(deleteSpec)).then();
+        return executeUpdate(table.tableName + ".delete", statementMapper.getMappedObject(deleteSpec)).then();
+    }
+
+    private Mono<Long> executeUpdate(String queryName, PreparedOperation<?> operation) {
+        return queryMetrics.timedUpdate(
+            queryName,
+            operation.toQuery(),
+            r2dbcEntityTemplate.getDatabaseClient().sql(operation).fetch().rowsUpdated()
+        );
     }
 
     private String createSelectImpl(SelectOrdered selectFrom, Class<?> entityType, Sort sortParameter) {
@@ -213,6 +393,32 @@ public class EntityManager {
         return createSelect(selectFrom.build());
     }
 
+    private String getOrRender(SelectShape shape, Supplier<String> renderer) {
+        String sql = sqlCache.get(shape);
+        if (sql == null) {
+            sql = renderer.get();
+            if (sqlCache.size() < SQL_CACHE_SIZE) {
+                sqlCache.putIfAbsent(shape, sql);
+            }
+        }
+        return sql;
+    }
+
+    private static Condition and(Condition left, Condition right) {
+        if (left == null) {
+            return right;
+        }
+        return right == null ? left : left.and(right);
+    }
+
+    private static OrderByField withDirection(OrderByField field, boolean ascending) {
+        return ascending ? field.asc() : field.desc();
+    }
+
+    private static String qualifiedName(Table table, RelationalPersistentProperty property) {
+        return table.getReferenceName().getReference() + "." + property.getColumnName().getReference();
+    }
+
     private RelationalPersistentEntity<?> getPersistentEntity(Class<?> entityType) {
         return r2dbcEntityTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
     }
@@ -0,0 +1,99 @@
+package api.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.util.Assert;
+
+/**
+ * Position of the last row of a keyset (seek) page: the sorted property, its value and the id of that row.
+ * <p>
+ * It is exchanged with the clients as an opaque token, see {@link #encode()} and {@link #decode(String)}.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '\n';
+
+    private final String property;
+    private final String value;
+    private final long id;
+
+    private KeysetCursor(String property, String value, long id) {
+        Assert.notNull(property, "property is null");
+        Assert.notNull(value, "value is null");
+        this.property = property;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor pointing after the given row.
+     * @param property the sorted property.
+     * @param value the value of the sorted property in the last row of the page.
+     * @param id the id of the last row of the page.
+     * @return the cursor.
+     */
+    public static KeysetCursor of(String property, Object value, long id) {
+        Assert.notNull(value, "keyset pagination does not support null sort values");
+        return new KeysetCursor(property, value.toString(), id);
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     * @param token the opaque token sent by the client.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the token is not a valid cursor.
+     */
+    public static KeysetCursor decode(String token) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int first = decoded.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : decoded.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        long id = Long.parseLong(decoded.substring(first + 1, second));
+        return new KeysetCursor(decoded.substring(0, first), decoded.substring(second + 1), id);
+    }
+
+    /**
+     * @return the opaque, URL safe token of this cursor.
+     */
+    public String encode() {
+        String raw = property + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetCursor)) {
+            return false;
+        }
+        KeysetCursor that = (KeysetCursor) o;
+        return id == that.id && property.equals(that.property) && value.equals(that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(property, value, id);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetCursor{property='" + property + "', value='" + value + "', id=" + id + "}";
+    }
+}
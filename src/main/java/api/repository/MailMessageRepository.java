@@ -0,0 +1,39 @@
+package api.repository;
+
+import api.domain.MailMessage;
+import java.time.Instant;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link MailMessage} entity.
+ */
+@Repository
+public interface MailMessageRepository extends R2dbcRepository<MailMessage, Long> {
+    /**
+     * Claims the mails due to be sent: their attempt is counted, and they are not claimed again until the lease expires.
+     * <p>
+     * The mails claimed by another instance are skipped rather than waited for.
+     *
+     * @param now the current time.
+     * @param leaseUntil the time until which the mails are claimed.
+     * @param maxAttempts the maximum number of attempts to send a mail.
+     * @param batchSize the maximum number of mails to claim.
+     * @return the claimed mails.
+     */
+    @Query(
+        "UPDATE jhi_mail_message SET attempts = attempts + 1, next_attempt_at = :leaseUntil WHERE id IN (" +
+        "SELECT id FROM jhi_mail_message WHERE next_attempt_at <= :now AND attempts < :maxAttempts " +
+        "ORDER BY next_attempt_at LIMIT :batchSize FOR UPDATE SKIP LOCKED) RETURNING *"
+    )
+    Flux<MailMessage> claim(Instant now, Instant leaseUntil, int maxAttempts, int batchSize);
+
+    @Query("UPDATE jhi_mail_message SET next_attempt_at = :nextAttemptAt, last_error = :lastError WHERE id = :id")
+    Mono<Void> scheduleNextAttempt(Long id, Instant nextAttemptAt, String lastError);
+
+    @Query("SELECT COUNT(*) FROM jhi_mail_message WHERE attempts < :maxAttempts")
+    Mono<Long> countPending(int maxAttempts);
+}
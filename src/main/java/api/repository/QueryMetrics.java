@@ -0,0 +1,255 @@
+package api.repository;
+
+import api.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times the queries of the custom repositories, which are not covered by {@code spring.data.repository.autotime}.
+ * <p>
+ * Each query is identified by a name, e.g. {@code Slider.select}, the shape of its SQL statement: the statements of a
+ * name only differ by their conditions and order. The name tags the meters, and the queries slower than
+ * {@code application.repository.slow-query-threshold} are kept with their SQL statement in a bounded slow query log.
+ */
+@Component
+public class QueryMetrics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryMetrics.class);
+
+    public static final String QUERY_METER_NAME = "repository.query";
+    public static final String QUERY_METER_DESCRIPTION = "Time from the execution of a query to the reading of its last row.";
+    public static final String QUERY_METER_QUERY_DIMENSION = "query";
+    public static final String QUERY_METER_OUTCOME_DIMENSION = "outcome";
+
+    public static final String ROWS_METER_NAME = "repository.query.rows";
+    public static final String ROWS_METER_DESCRIPTION = "Number of rows read, or updated, by a query.";
+    public static final String ROWS_METER_BASE_UNIT = "rows";
+
+    public static final String SLOW_METER_NAME = "repository.query.slow";
+    public static final String SLOW_METER_DESCRIPTION = "Indicates the count of the queries slower than the slow query threshold.";
+    public static final String SLOW_METER_BASE_UNIT = "queries";
+
+    private final MeterRegistry registry;
+
+    private final long slowQueryThresholdNanos;
+
+    private final int slowQueryLogSize;
+
+    private final Deque<SlowQuery> slowQueries;
+
+    private final Map<String, QueryMeters> queryMeters = new ConcurrentHashMap<>();
+
+    public QueryMetrics(ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.registry = registry;
+        this.slowQueryThresholdNanos = applicationProperties.getRepository().getSlowQueryThreshold().toNanos();
+        this.slowQueryLogSize = applicationProperties.getRepository().getSlowQueryLogSize();
+        this.slowQueries = new ArrayDeque<>(Math.max(slowQueryLogSize, 0));
+    }
+
+    /**
+     * Times the rows read by the given statement.
+     *
+     * @param queryName the name of the shape of the statement.
+     * @param sql the SQL statement, kept in the slow query log.
+     * @param spec the statement, with its row mapping.
+     * @return the timed statement.
+     */
+    public <T> RowsFetchSpec<T> timed(String queryName, String sql, RowsFetchSpec<T> spec) {
+        return new RowsFetchSpec<>() {
+            @Override
+            public Mono<T> one() {
+                return timed(queryName, sql, spec.one());
+            }
+
+            @Override
+            public Mono<T> first() {
+                return timed(queryName, sql, spec.first());
+            }
+
+            @Override
+            public Flux<T> all() {
+                return timed(queryName, sql, spec.all());
+            }
+        };
+    }
+
+    /**
+     * Times a query, from its subscription to its termination, counting the elements it emits as the rows read.
+     *
+     * @param queryName the name of the shape of the query.
+     * @param sql the SQL statement, kept in the slow query log.
+     * @param rows the query.
+     * @return the timed query.
+     */
+    public <T> Flux<T> timed(String queryName, String sql, Flux<T> rows) {
+        QueryMeters meters = queryMeters(queryName);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return rows.doOnNext(row -> count.incrementAndGet()).doFinally(signal -> meters.record(sql, signal, start, count.get()));
+        });
+    }
+
+    /**
+     * Times a query, from its subscription to its termination, counting the element it emits as the row read.
+     *
+     * @param queryName the name of the shape of the query.
+     * @param sql the SQL statement, kept in the slow query log.
+     * @param row the query.
+     * @return the timed query.
+     */
+    public <T> Mono<T> timed(String queryName, String sql, Mono<T> row) {
+        QueryMeters meters = queryMeters(queryName);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return row.doOnNext(value -> count.incrementAndGet()).doFinally(signal -> meters.record(sql, signal, start, count.get()));
+        });
+    }
+
+    /**
+     * Times an update, from its subscription to its termination, with the number of rows it updated.
+     *
+     * @param queryName the name of the shape of the update.
+     * @param sql the SQL statement, kept in the slow query log.
+     * @param rowsUpdated the number of rows updated by the update.
+     * @return the timed update.
+     */
+    public Mono<Long> timedUpdate(String queryName, String sql, Mono<Long> rowsUpdated) {
+        QueryMeters meters = queryMeters(queryName);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong count = new AtomicLong();
+            return rowsUpdated.doOnNext(count::addAndGet).doFinally(signal -> meters.record(sql, signal, start, count.get()));
+        });
+    }
+
+    /**
+     * Returns the slow query log.
+     *
+     * @return the recent slow queries, the most recent first.
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    private QueryMeters queryMeters(String queryName) {
+        QueryMeters meters = queryMeters.get(queryName);
+        return meters != null ? meters : queryMeters.computeIfAbsent(queryName, QueryMeters::new);
+    }
+
+    private void logSlowQuery(SlowQuery slowQuery) {
+        LOG.warn(
+            "Slow query {} took {} ms for {} row(s): {}",
+            slowQuery.query(),
+            slowQuery.duration().toMillis(),
+            slowQuery.rows(),
+            slowQuery.sql()
+        );
+        if (slowQueryLogSize <= 0) {
+            return;
+        }
+        synchronized (slowQueries) {
+            if (slowQueries.size() >= slowQueryLogSize) {
+                slowQueries.removeLast();
+            }
+            slowQueries.addFirst(slowQuery);
+        }
+    }
+
+    /**
+     * A query slower than the slow query threshold.
+     *
+     * @param query the name of the shape of the query.
+     * @param sql the SQL statement.
+     * @param outcome {@code success}, {@code error} or {@code cancel}.
+     * @param rows the number of rows read or updated.
+     * @param duration the time from the execution of the query to the reading of its last row.
+     * @param completedAt the time the query terminated.
+     */
+    public record SlowQuery(String query, String sql, String outcome, long rows, Duration duration, Instant completedAt) {}
+
+    /**
+     * The meters of a query.
+     */
+    private final class QueryMeters {
+
+        private final String queryName;
+
+        private final Timer successTimer;
+        private final Timer errorTimer;
+        private final Timer cancelTimer;
+        private final DistributionSummary rows;
+        private final Counter slowCounter;
+
+        private QueryMeters(String queryName) {
+            this.queryName = queryName;
+            this.successTimer = queryTimerBuilder("success").register(registry);
+            this.errorTimer = queryTimerBuilder("error").register(registry);
+            this.cancelTimer = queryTimerBuilder("cancel").register(registry);
+            this.rows = DistributionSummary.builder(ROWS_METER_NAME)
+                .description(ROWS_METER_DESCRIPTION)
+                .baseUnit(ROWS_METER_BASE_UNIT)
+                .tag(QUERY_METER_QUERY_DIMENSION, queryName)
+                .register(registry);
+            this.slowCounter = Counter.builder(SLOW_METER_NAME)
+                .baseUnit(SLOW_METER_BASE_UNIT)
+                .description(SLOW_METER_DESCRIPTION)
+                .tag(QUERY_METER_QUERY_DIMENSION, queryName)
+                .register(registry);
+        }
+
+        private Timer.Builder queryTimerBuilder(String outcome) {
+            return Timer.builder(QUERY_METER_NAME)
+                .description(QUERY_METER_DESCRIPTION)
+                .tag(QUERY_METER_QUERY_DIMENSION, queryName)
+                .tag(QUERY_METER_OUTCOME_DIMENSION, outcome)
+                .publishPercentileHistogram();
+        }
+
+        private void record(String sql, SignalType signal, long start, long count) {
+            long duration = System.nanoTime() - start;
+            String outcome;
+            switch (signal) {
+                case ON_COMPLETE -> {
+                    outcome = "success";
+                    successTimer.record(duration, TimeUnit.NANOSECONDS);
+                }
+                case ON_ERROR -> {
+                    outcome = "error";
+                    errorTimer.record(duration, TimeUnit.NANOSECONDS);
+                }
+                default -> {
+                    outcome = "cancel";
+                    cancelTimer.record(duration, TimeUnit.NANOSECONDS);
+                }
+            }
+            rows.record(count);
+            if (duration >= slowQueryThresholdNanos) {
+                slowCounter.increment();
+                logSlowQuery(new SlowQuery(queryName, sql, outcome, count, Duration.ofNanos(duration), Instant.now()));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package api.repository;
+
+import api.domain.RefreshToken;
+import java.time.Instant;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends R2dbcRepository<RefreshToken, Long> {
+    Mono<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    /**
+     * Marks the unexpired token with the given hash as used, in a single statement so that a token is used only once.
+     *
+     * @param tokenHash the hash of the token.
+     * @param now the current time.
+     * @return the token, or an empty {@link Mono} if it is unknown, expired or already used.
+     */
+    @Query("UPDATE jhi_refresh_token SET used = true WHERE token_hash = :tokenHash AND used = false AND expires_at > :now RETURNING *")
+    Mono<RefreshToken> use(String tokenHash, Instant now);
+
+    @Query("DELETE FROM jhi_refresh_token WHERE family_id = :familyId")
+    Mono<Void> deleteAllByFamilyId(String familyId);
+
+    @Query("DELETE FROM jhi_refresh_token WHERE user_id = :userId")
+    Mono<Void> deleteAllByUserId(Long userId);
+
+    @Query("DELETE FROM jhi_refresh_token WHERE expires_at < :now")
+    Mono<Void> deleteAllExpiredBefore(Instant now);
+}
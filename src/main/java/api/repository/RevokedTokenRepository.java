@@ -0,0 +1,20 @@
+package api.repository;
+
+import api.domain.RevokedToken;
+import java.time.Instant;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the {@link RevokedToken} entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends R2dbcRepository<RevokedToken, Long> {
+    Flux<RevokedToken> findAllByExpiresAtAfter(Instant now);
+
+    @Query("DELETE FROM jhi_revoked_token WHERE expires_at < :now")
+    Mono<Void> deleteAllExpiredBefore(Instant now);
+}
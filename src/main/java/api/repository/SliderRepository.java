@@ -2,7 +2,10 @@ package api.repository;
 
 import api.domain.Slider;
 import api.domain.criteria.SliderCriteria;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
@@ -32,6 +35,9 @@ public interface SliderRepository extends ReactiveCrudRepository<Slider, Long>,
     @Query("SELECT * FROM slider entity WHERE entity.user_id IS NULL")
     Flux<Slider> findAllWhereUserIsNull();
 
+    @Query("SELECT id FROM slider WHERE id IN (:ids)")
+    Flux<Long> findIdsByIdIn(Collection<Long> ids);
+
     @Override
     <S extends Slider> Mono<S> save(S entity);
 
@@ -57,6 +63,20 @@ interface SliderRepositoryInternal {
     // Flux<Slider> findAllBy(Pageable pageable, Criteria criteria);
     Flux<Slider> findByCriteria(SliderCriteria criteria, Pageable pageable);
 
+    Flux<Slider> findByCriteria(SliderCriteria criteria, Sort.Order order, int pageSize, KeysetCursor after);
+
+    Flux<Slider> streamByCriteria(SliderCriteria criteria, Sort sort);
+
+    Flux<Slider> insertAll(List<Slider> sliders);
+
+    Flux<Long> updateAll(List<Slider> sliders);
+
+    Flux<Long> deleteAllByIdIn(List<Long> ids);
+
+    Mono<Slider> update(Slider slider);
+
+    Mono<Slider> updateNonNullColumns(Slider slider);
+
     Mono<Long> countByCriteria(SliderCriteria criteria);
 
     Mono<Slider> findOneWithEagerRelationships(Long id);
@@ -5,29 +5,37 @@ import api.domain.criteria.SliderCriteria;
 import api.repository.rowmapper.ColumnConverter;
 import api.repository.rowmapper.SliderRowMapper;
 import api.repository.rowmapper.UserRowMapper;
+import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
-import java.util.ArrayList;
+import io.r2dbc.spi.Statement;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Functions;
+import org.springframework.data.relational.core.sql.InlineQuery;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import tech.jhipster.service.ConditionBuilder;
 
 /**
  * Spring Data R2DBC custom repository implementation for the Slider entity.
@@ -38,6 +46,7 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final EntityManager entityManager;
+    private final QueryMetrics queryMetrics;
 
     private final UserRowMapper userMapper;
     private final SliderRowMapper sliderMapper;
@@ -46,9 +55,36 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
     private static final Table entityTable = Table.aliased("slider", EntityManager.ENTITY_ALIAS);
     private static final Table userTable = Table.aliased("jhi_user", "e_user");
 
+    static final int STREAM_FETCH_SIZE = 256;
+
+    private static final String INSERT_SQL = "INSERT INTO slider (presentation, user_id) VALUES ($1, $2) RETURNING id, version";
+    private static final String UPDATE_SQL =
+        "UPDATE slider SET presentation = $1, user_id = $2, version = version + 1 WHERE id = $3 AND ($4::bigint IS NULL OR version = $4)";
+    private static final String DELETE_SQL = "DELETE FROM slider WHERE id = $1";
+    private static final String UPDATED_TABLE = "updated_slider";
+    private static final String CURRENT_TABLE = "current_slider";
+
+    private static final String PRESENTATION_ASSIGNMENT = "presentation = :presentation";
+    private static final String USER_ASSIGNMENT = "user_id = :userId";
+    private static final String VERSION_ASSIGNMENT = "version = version + 1";
+    private static final String VERSION_CONDITION = " AND version = :version";
+
+    private static final String SELECT_QUERY = "Slider.select";
+    private static final String COUNT_QUERY = "Slider.count";
+    private static final String COUNT_WITH_USER_QUERY = "Slider.countWithUser";
+    private static final String SELECT_UPDATED_QUERY = "Slider.selectUpdated";
+    private static final String SEEK_QUERY = "Slider.seek";
+    private static final String STREAM_QUERY = "Slider.stream";
+    private static final String UPDATE_QUERY = "Slider.update";
+    private static final String INSERT_ALL_QUERY = "Slider.insertAll";
+    private static final String UPDATE_ALL_QUERY = "Slider.updateAll";
+    private static final String DELETE_ALL_QUERY = "Slider.deleteAll";
+    private static final Condition ID_CONDITION = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public SliderRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
+        QueryMetrics queryMetrics,
         UserRowMapper userMapper,
         SliderRowMapper sliderMapper,
         R2dbcEntityOperations entityOperations,
@@ -63,6 +99,7 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
         this.db = template.getDatabaseClient();
         this.r2dbcEntityTemplate = template;
         this.entityManager = entityManager;
+        this.queryMetrics = queryMetrics;
         this.userMapper = userMapper;
         this.sliderMapper = sliderMapper;
         this.columnConverter = columnConverter;
@@ -74,17 +111,48 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
     }
 
     RowsFetchSpec<Slider> createQuery(Pageable pageable, Condition whereClause) {
+        return createQuery(pageable, whereClause, Map.of());
+    }
+
+    RowsFetchSpec<Slider> createQuery(Pageable pageable, Condition whereClause, Map<String, Object> bindings) {
+        String select = createSelect(pageable, whereClause);
+        return queryMetrics.timed(SELECT_QUERY, select, createStatement(select, pageable, bindings).map(this::process));
+    }
+
+    private String createSelect(Pageable pageable, Condition whereClause) {
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        return entityManager.createSelect(SELECT_QUERY, this::createSelectFrom, Slider.class, pageable, whereClause);
+    }
+
+    private GenericExecuteSpec createStatement(String select, Pageable pageable, Map<String, Object> bindings) {
+        return entityManager.bindPaging(db.sql(select), pageable).bindValues(bindings);
+    }
+
+    RowsFetchSpec<Slider> createSeekQuery(
+        Sort.Order order,
+        int pageSize,
+        KeysetCursor after,
+        Condition whereClause,
+        Map<String, Object> bindings
+    ) {
+        EntityManager.Seek seek = entityManager.createSeek(entityTable, Slider.class, order, pageSize, after);
+        String select = entityManager.createSelect(SELECT_QUERY, this::createSelectFrom, seek, whereClause);
+        return queryMetrics.timed(
+            SEEK_QUERY,
+            select,
+            db.sql(select).bindValues(seek.getBindings()).bindValues(bindings).map(this::process)
+        );
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
         List<Expression> columns = SliderSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(UserSqlHelper.getColumns(userTable, "user"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(userTable)
             .on(Column.create("user_id", entityTable))
             .equals(Column.create("id", userTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Slider.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -94,8 +162,102 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
 
     @Override
     public Mono<Slider> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery(null, ID_CONDITION, Map.of("id", id)).one();
+    }
+
+    /**
+     * Updates all the columns of the slider and reads it back with its user, in a single statement.
+     * If the version of the slider is set, the update only happens if it is still the version in the database.
+     * @return the updated slider, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException (in the returned publisher) if the version does not match.
+     */
+    @Override
+    public Mono<Slider> update(Slider slider) {
+        return updateReturning(slider, true, true);
+    }
+
+    /**
+     * Updates the columns of the non null fields of the slider and reads it back with its user, in a single statement.
+     * If the version of the slider is set, the update only happens if it is still the version in the database.
+     * @return the updated slider, or empty if it does not exist.
+     * @throws OptimisticLockingFailureException (in the returned publisher) if the version does not match.
+     */
+    @Override
+    public Mono<Slider> updateNonNullColumns(Slider slider) {
+        return updateReturning(slider, slider.getPresentation() != null, slider.getUserId() != null);
+    }
+
+    private Mono<Slider> updateReturning(Slider slider, boolean presentation, boolean user) {
+        Long version = slider.getVersion();
+        if (!presentation && !user && version == null) {
+            return findById(slider.getId());
+        }
+        StringBuilder sql = new StringBuilder("WITH ").append(UPDATED_TABLE).append(" AS (UPDATE slider SET ");
+        if (presentation) {
+            sql.append(PRESENTATION_ASSIGNMENT).append(", ");
+        }
+        if (user) {
+            sql.append(USER_ASSIGNMENT).append(", ");
+        }
+        sql.append(VERSION_ASSIGNMENT).append(" WHERE id = :id");
+        if (version != null) {
+            sql.append(VERSION_CONDITION);
+        }
+        sql
+            .append(" RETURNING *) ")
+            .append(entityManager.createSelect(SELECT_UPDATED_QUERY, this::createSelectFromUpdated, Slider.class, null, null));
+        String update = sql.toString();
+        GenericExecuteSpec spec = db.sql(update).bind("id", slider.getId());
+        if (presentation) {
+            spec = bindNullable(spec, "presentation", slider.getPresentation(), String.class);
+        }
+        if (user) {
+            spec = bindNullable(spec, "userId", slider.getUserId(), Long.class);
+        }
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return queryMetrics
+            .timed(UPDATE_QUERY, update, spec.map(this::process).one())
+            .flatMap(updated ->
+                updated.getId() != null
+                    ? Mono.just(updated)
+                    : Mono.error(new OptimisticLockingFailureException("Slider " + slider.getId() + " is not at version " + version))
+            );
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+
+    /**
+     * Same columns and join as {@link #createSelectFrom()}, but reading the row returned by the update.
+     * <p>
+     * The row returned by the update is joined to the slider as it was before the update: no row means the slider does
+     * not exist, a row with null columns means the update did not match the version.
+     */
+    private SelectFromAndJoinCondition createSelectFromUpdated() {
+        Table sliderTable = Table.create("slider");
+        InlineQuery currentTable = InlineQuery.create(
+            Select.builder()
+                .select(sliderTable.column("id"))
+                .from(sliderTable)
+                .where(Conditions.isEqual(sliderTable.column("id"), SQL.bindMarker(":id")))
+                .build(),
+            CURRENT_TABLE
+        );
+        Table updatedTable = Table.aliased(UPDATED_TABLE, EntityManager.ENTITY_ALIAS);
+        List<Expression> columns = SliderSqlHelper.getColumns(updatedTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(UserSqlHelper.getColumns(userTable, "user"));
+        return Select.builder()
+            .select(columns)
+            .from(currentTable)
+            .leftOuterJoin(updatedTable)
+            .on(Column.create("id", updatedTable))
+            .equals(currentTable.column("id"))
+            .leftOuterJoin(userTable)
+            .on(Column.create("user_id", updatedTable))
+            .equals(Column.create("id", userTable));
     }
 
     @Override
@@ -126,19 +288,139 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
 
     @Override
     public Flux<Slider> findByCriteria(SliderCriteria sliderCriteria, Pageable page) {
-        return createQuery(page, buildConditions(sliderCriteria)).all();
+        CriteriaConditionBuilder conditions = buildConditions(sliderCriteria);
+        return createQuery(page, conditions.buildConditions(), conditions.getBindings()).all();
+    }
+
+    @Override
+    public Flux<Slider> findByCriteria(SliderCriteria sliderCriteria, Sort.Order order, int pageSize, KeysetCursor after) {
+        CriteriaConditionBuilder conditions = buildConditions(sliderCriteria);
+        return createSeekQuery(order, pageSize, after, conditions.buildConditions(), conditions.getBindings()).all();
+    }
+
+    /**
+     * Streams all the sliders matching the criteria, without paging.
+     * The rows are fetched from the database {@value #STREAM_FETCH_SIZE} at a time, as the subscriber requests them,
+     * instead of being read all at once.
+     */
+    @Override
+    public Flux<Slider> streamByCriteria(SliderCriteria criteria, Sort sort) {
+        CriteriaConditionBuilder conditions = buildConditions(criteria);
+        Pageable unpaged = Pageable.unpaged(sort);
+        String select = createSelect(unpaged, conditions.buildConditions());
+        return queryMetrics.timed(
+            STREAM_QUERY,
+            select,
+            createStatement(select, unpaged, conditions.getBindings())
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(this::process)
+                .all()
+        );
+    }
+
+    /**
+     * Inserts the sliders with one prepared statement, executed for each slider in a single pipelined batch.
+     * @return the inserted sliders with their id and version, in the order of the given list.
+     */
+    @Override
+    public Flux<Slider> insertAll(List<Slider> sliders) {
+        Flux<Slider> inserted = executeBatch(INSERT_SQL, sliders, (statement, slider) ->
+            statement.bind(0, slider.getPresentation()).bind(1, slider.getUserId())
+        ).concatMap(result ->
+            result.map((row, metadata) -> new Slider().id(row.get("id", Long.class)).version(row.get("version", Long.class)))
+        );
+        return queryMetrics
+            .timed(INSERT_ALL_QUERY, INSERT_SQL, inserted)
+            .zipWithIterable(sliders, (row, slider) -> slider.id(row.getId()).version(row.getVersion()));
+    }
+
+    /**
+     * Updates the sliders with one prepared statement, executed for each slider in a single pipelined batch.
+     * <p>
+     * A slider with a version is only updated if it still has this version.
+     * @return the number of updated rows of each slider, in the order of the given list, 0 if it does not exist or has
+     * another version.
+     */
+    @Override
+    public Flux<Long> updateAll(List<Slider> sliders) {
+        Flux<Long> updated = executeBatch(UPDATE_SQL, sliders, (statement, slider) -> {
+            statement.bind(0, slider.getPresentation()).bind(1, slider.getUserId()).bind(2, slider.getId());
+            if (slider.getVersion() != null) {
+                statement.bind(3, slider.getVersion());
+            } else {
+                statement.bindNull(3, Long.class);
+            }
+        }).concatMap(Result::getRowsUpdated);
+        return queryMetrics.timed(UPDATE_ALL_QUERY, UPDATE_SQL, updated);
+    }
+
+    /**
+     * Deletes the sliders with one prepared statement, executed for each id in a single pipelined batch.
+     * @return the number of deleted rows of each id, in the order of the given list, 0 if it does not exist.
+     */
+    @Override
+    public Flux<Long> deleteAllByIdIn(List<Long> ids) {
+        return queryMetrics.timed(
+            DELETE_ALL_QUERY,
+            DELETE_SQL,
+            executeBatch(DELETE_SQL, ids, (statement, id) -> statement.bind(0, id)).concatMap(Result::getRowsUpdated)
+        );
+    }
+
+    private <T> Flux<Result> executeBatch(String sql, List<T> items, BiConsumer<Statement, T> binder) {
+        if (items.isEmpty()) {
+            return Flux.empty();
+        }
+        return db.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(sql);
+            for (int i = 0; i < items.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                binder.accept(statement, items.get(i));
+            }
+            return Flux.from(statement.execute());
+        });
     }
 
     @Override
     public Mono<Long> countByCriteria(SliderCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        CriteriaConditionBuilder conditions = buildConditions(criteria);
+        String select = createCountSelect(criteria, conditions.buildConditions());
+        String queryName = criteria != null && criteria.getUserId() != null ? COUNT_WITH_USER_QUERY : COUNT_QUERY;
+        return queryMetrics
+            .timed(queryName, select, conditions.bind(db.sql(select)).map((row, metadata) -> row.get(0, Long.class)).one())
+            .defaultIfEmpty(0L);
+    }
+
+    /**
+     * Renders a {@code SELECT COUNT(e.id)} statement for the given criteria, so the count is computed by the database
+     * instead of fetching and mapping every matching row.
+     * The {@code jhi_user} table is only joined when a user filter is present.
+     */
+    String createCountSelect(SliderCriteria criteria, Condition whereClause) {
+        if (criteria != null && criteria.getUserId() != null) {
+            return entityManager.createSelect(
+                COUNT_WITH_USER_QUERY,
+                () ->
+                    createCountSelectFrom()
+                        .leftOuterJoin(userTable)
+                        .on(Column.create("user_id", entityTable))
+                        .equals(Column.create("id", userTable)),
+                Slider.class,
+                null,
+                whereClause
+            );
+        }
+        return entityManager.createSelect(COUNT_QUERY, this::createCountSelectFrom, Slider.class, null, whereClause);
+    }
+
+    private SelectFromAndJoin createCountSelectFrom() {
+        return Select.builder().select(Functions.count(entityTable.column("id"))).from(entityTable);
     }
 
-    private Condition buildConditions(SliderCriteria criteria) {
-        ConditionBuilder builder = new ConditionBuilder(this.columnConverter);
-        List<Condition> allConditions = new ArrayList<Condition>();
+    private CriteriaConditionBuilder buildConditions(SliderCriteria criteria) {
+        CriteriaConditionBuilder builder = new CriteriaConditionBuilder(this.columnConverter);
         if (criteria != null) {
             if (criteria.getId() != null) {
                 builder.buildFilterConditionForField(criteria.getId(), entityTable.column("id"));
@@ -150,6 +432,6 @@ class SliderRepositoryInternalImpl extends SimpleR2dbcRepository<Slider, Long> i
                 builder.buildFilterConditionForField(criteria.getUserId(), userTable.column("id"));
             }
         }
-        return builder.buildConditions();
+        return builder;
     }
 }
@@ -14,6 +14,7 @@ public class SliderSqlHelper {
         columns.add(Column.aliased("presentation", table, columnPrefix + "_presentation"));
 
         columns.add(Column.aliased("user_id", table, columnPrefix + "_user_id"));
+        columns.add(Column.aliased("version", table, columnPrefix + "_version"));
         return columns;
     }
 }
@@ -6,17 +6,26 @@ import static org.springframework.data.relational.core.query.Query.query;
 import api.domain.Authority;
 import api.domain.User;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.beanutils.BeanComparator;
 import org.springframework.data.domain.*;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.StatementMapper;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.data.relational.core.sql.Table;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.PreparedOperation;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -52,6 +61,12 @@ public interface UserRepository extends R2dbcRepository<User, Long>, UserReposit
 
     @Query("DELETE FROM jhi_user_authority WHERE user_id = :userId")
     Mono<Void> deleteUserAuthorities(Long userId);
+
+    @Query("UPDATE jhi_user SET password_hash = :newPassword WHERE login = :login AND password_hash = :currentPassword RETURNING id")
+    Mono<Long> updatePassword(String login, String currentPassword, String newPassword);
+
+    @Query("SELECT id FROM jhi_user WHERE id IN (:ids)")
+    Flux<Long> findIdsByIdIn(Collection<Long> ids);
 }
 
 interface DeleteExtended<T> {
@@ -64,6 +79,8 @@ interface UserRepositoryInternal extends DeleteExtended<User> {
     Mono<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Flux<User> findAllWithAuthorities(Pageable pageable);
+
+    Flux<User> findAllWithAuthorities(Sort.Order order, int pageSize, KeysetCursor after);
 }
 
 class UserRepositoryInternalImpl implements UserRepositoryInternal {
@@ -71,11 +88,33 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
     private final DatabaseClient db;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final R2dbcConverter r2dbcConverter;
+    private final EntityManager entityManager;
+    private final QueryMetrics queryMetrics;
+
+    private static final Table entityTable = Table.aliased("jhi_user", EntityManager.ENTITY_ALIAS);
+
+    private static final String SELECT_QUERY = "User.select";
+    private static final String SELECT_PAGE_QUERY = "User.selectPage";
+    private static final String SELECT_AUTHORITIES_QUERY = "User.selectAuthorities";
+    private static final String SELECT_WITH_AUTHORITIES_QUERY = "User.selectWithAuthorities";
+    private static final String DELETE_AUTHORITIES_QUERY = "User.deleteAuthorities";
 
-    public UserRepositoryInternalImpl(DatabaseClient db, R2dbcEntityTemplate r2dbcEntityTemplate, R2dbcConverter r2dbcConverter) {
+    private static final String SELECT_AUTHORITIES_SQL =
+        "SELECT ua.user_id, ua.authority_name FROM jhi_user_authority ua WHERE ua.user_id IN (:userIds)";
+    private static final String DELETE_AUTHORITIES_SQL = "DELETE FROM jhi_user_authority WHERE user_id = :userId";
+
+    public UserRepositoryInternalImpl(
+        DatabaseClient db,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        R2dbcConverter r2dbcConverter,
+        EntityManager entityManager,
+        QueryMetrics queryMetrics
+    ) {
         this.db = db;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.r2dbcConverter = r2dbcConverter;
+        this.entityManager = entityManager;
+        this.queryMetrics = queryMetrics;
     }
 
     @Override
@@ -90,45 +129,111 @@ class UserRepositoryInternalImpl implements UserRepositoryInternal {
 
     @Override
     public Flux<User> findAllWithAuthorities(Pageable pageable) {
-        String property = pageable.getSort().stream().map(Sort.Order::getProperty).findFirst().orElse("id");
-        String direction = String.valueOf(
-            pageable.getSort().stream().map(Sort.Order::getDirection).findFirst().orElse(Sort.DEFAULT_DIRECTION)
+        // First page the users in the database, then load the authorities of that page only
+        // The select is mapped by Spring Data, which maps the sorted properties to their columns
+        StatementMapper statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper().forType(User.class);
+        Pageable page = withIdTieBreaker(pageable);
+        PreparedOperation<?> operation = statementMapper.getMappedObject(
+            statementMapper
+                .createSelect(entityTable.getName())
+                .withProjection(r2dbcEntityTemplate.getDataAccessStrategy().getAllColumns(User.class).toArray(SqlIdentifier[]::new))
+                .withSort(page.getSort())
+                .withPage(page)
         );
-        long page = pageable.getPageNumber();
-        long size = pageable.getPageSize();
+        return queryMetrics
+            .timed(
+                SELECT_PAGE_QUERY,
+                operation.toQuery(),
+                db.sql(operation).map((row, metadata) -> r2dbcConverter.read(User.class, row, metadata))
+            )
+            .all()
+            .collectList()
+            .flatMapMany(users -> users.isEmpty() ? Flux.empty() : fetchAuthorities(users).thenMany(Flux.fromIterable(users)));
+    }
 
-        return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id")
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
+    @Override
+    public Flux<User> findAllWithAuthorities(Sort.Order order, int pageSize, KeysetCursor after) {
+        EntityManager.Seek seek = entityManager.createSeek(entityTable, User.class, order, pageSize, after);
+        String select = entityManager.createSelect(
+            SELECT_QUERY,
+            () -> Select.builder().select(Expressions.asterisk(entityTable)).from(entityTable),
+            seek,
+            null
+        );
+        return queryMetrics
+            .timed(
+                SELECT_QUERY,
+                select,
+                db.sql(select).bindValues(seek.getBindings()).map((row, metadata) -> r2dbcConverter.read(User.class, row, metadata))
             )
             .all()
-            .groupBy(t -> t.getT1().getLogin())
-            .flatMap(l -> l.collectList().map(t -> updateUserWithAuthorities(t.get(0).getT1(), t)))
-            .sort(
-                Sort.Direction.fromString(direction) == Sort.DEFAULT_DIRECTION
-                    ? new BeanComparator<>(property)
-                    : new BeanComparator<>(property).reversed()
+            .collectList()
+            .flatMapMany(users -> users.isEmpty() ? Flux.empty() : fetchAuthorities(users).thenMany(Flux.fromIterable(users)));
+    }
+
+    /**
+     * Appends the id to the requested sort, so rows with equal sort values are always returned in the same order
+     * and pages neither overlap nor skip users.
+     */
+    private static Pageable withIdTieBreaker(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") != null) {
+            return pageable;
+        }
+        Sort sortWithId = sort.and(Sort.by("id"));
+        return pageable.isPaged()
+            ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortWithId)
+            : Pageable.unpaged(sortWithId);
+    }
+
+    private Mono<Void> fetchAuthorities(List<User> users) {
+        Map<Long, User> usersById = users.stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        usersById.values().forEach(user -> user.setAuthorities(new HashSet<>()));
+        return queryMetrics
+            .timed(
+                SELECT_AUTHORITIES_QUERY,
+                SELECT_AUTHORITIES_SQL,
+                db
+                    .sql(SELECT_AUTHORITIES_SQL)
+                    .bind("userIds", usersById.keySet())
+                    .map((row, metadata) -> Tuples.of(row.get("user_id", Long.class), row.get("authority_name", String.class)))
             )
-            .skip(page * size)
-            .take(size);
+            .all()
+            .doOnNext(t -> {
+                Authority authority = new Authority();
+                authority.setName(t.getT2());
+                usersById.get(t.getT1()).getAuthorities().add(authority);
+            })
+            .then();
     }
 
     @Override
     public Mono<Void> delete(User user) {
-        return db
-            .sql("DELETE FROM jhi_user_authority WHERE user_id = :userId")
-            .bind("userId", user.getId())
-            .then()
+        return queryMetrics
+            .timedUpdate(
+                DELETE_AUTHORITIES_QUERY,
+                DELETE_AUTHORITIES_SQL,
+                db.sql(DELETE_AUTHORITIES_SQL).bind("userId", user.getId()).fetch().rowsUpdated()
+            )
             .then(r2dbcEntityTemplate.delete(User.class).matching(query(where("id").is(user.getId()))).all().then());
     }
 
     private Mono<User> findOneWithAuthoritiesBy(String fieldName, Object fieldValue) {
-        return db
-            .sql("SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id WHERE u." + fieldName + " = :" + fieldName)
-            .bind(fieldName, fieldValue)
-            .map((row, metadata) ->
-                Tuples.of(r2dbcConverter.read(User.class, row, metadata), Optional.ofNullable(row.get("authority_name", String.class)))
+        String select =
+            "SELECT * FROM jhi_user u LEFT JOIN jhi_user_authority ua ON u.id=ua.user_id WHERE u." + fieldName + " = :" + fieldName;
+        return queryMetrics
+            .timed(
+                SELECT_WITH_AUTHORITIES_QUERY,
+                select,
+                db
+                    .sql(select)
+                    .bind(fieldName, fieldValue)
+                    .map((row, metadata) ->
+                        Tuples.of(
+                            r2dbcConverter.read(User.class, row, metadata),
+                            Optional.ofNullable(row.get("authority_name", String.class))
+                        )
+                    )
             )
             .all()
             .collectList()
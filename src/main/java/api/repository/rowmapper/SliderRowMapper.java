@@ -27,6 +27,7 @@ public class SliderRowMapper implements BiFunction<Row, String, Slider> {
         entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
         entity.setPresentation(converter.fromRow(row, prefix + "_presentation", String.class));
         entity.setUserId(converter.fromRow(row, prefix + "_user_id", Long.class));
+        entity.setVersion(converter.fromRow(row, prefix + "_version", Long.class));
         return entity;
     }
 }
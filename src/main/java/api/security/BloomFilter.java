@@ -0,0 +1,65 @@
+package api.security;
+
+/**
+ * A fixed size Bloom filter of strings: {@link #mightContain(String)} is {@code false} for the strings that were never
+ * {@link #put(String) put}, and for most of the others.
+ * <p>
+ * The filter is sized for an expected number of strings and false positive probability. Reading it while it is written
+ * is not safe: build it, then publish it.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+
+    private final int bitCount;
+
+    private final int hashCount;
+
+    BloomFilter(int expectedInsertions, double falsePositiveProbability) {
+        int insertions = Math.max(1, expectedInsertions);
+        long optimalBitCount = (long) Math.ceil((-insertions * Math.log(falsePositiveProbability)) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBitCount));
+        this.bits = new long[(bitCount + 63) >>> 6];
+        this.hashCount = Math.max(1, (int) Math.round(((double) bitCount / insertions) * Math.log(2)));
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64 bits FNV-1a hash of the characters, finalized with the MurmurHash3 mixer.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,91 @@
+package api.security;
+
+import api.config.ApplicationProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches the tokens verified by another decoder, so that a token presented again skips the signature verification and
+ * the parsing of its claims.
+ * <p>
+ * The tokens are cached by their SHA-256 digest until they expire, at most
+ * {@code application.security.jwt-cache.maximum-size} of them. Only the valid tokens are cached: the invalid ones are
+ * always decoded, and counted, by the other decoder.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    public static final String CACHE_NAME = "jwt";
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final ReactiveJwtDecoder delegate;
+
+    private final Cache<ByteBuffer, Jwt> cache;
+
+    public CachingReactiveJwtDecoder(ReactiveJwtDecoder delegate, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(applicationProperties.getSecurity().getJwtCache().getMaximumSize())
+            .expireAfter(new UntilExpiresAt())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        ByteBuffer key = digest(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return delegate
+            .decode(token)
+            .doOnNext(jwt -> {
+                if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(Instant.now())) {
+                    cache.put(key, jwt);
+                }
+            });
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Expires the cached tokens when the tokens themselves expire.
+     */
+    private static final class UntilExpiresAt implements Expiry<ByteBuffer, Jwt> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Jwt jwt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
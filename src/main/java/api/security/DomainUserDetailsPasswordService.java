@@ -0,0 +1,43 @@
+package api.security;
+
+import api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores the password hashes upgraded on login, see {@link api.config.SecurityConfiguration#passwordEncoder()}.
+ * <p>
+ * The hash is only replaced if it did not change since the user was loaded, so that a password changed during the
+ * login is kept.
+ */
+@Component
+public class DomainUserDetailsPasswordService implements ReactiveUserDetailsPasswordService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsPasswordService.class);
+
+    private final UserRepository userRepository;
+
+    private final DomainUserDetailsService userDetailsService;
+
+    public DomainUserDetailsPasswordService(UserRepository userRepository, DomainUserDetailsService userDetailsService) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        LOG.debug("Upgrading the password hash of {}", user.getUsername());
+        return userRepository
+            .updatePassword(user.getUsername(), user.getPassword(), newPassword)
+            .flatMap(userId -> userDetailsService.evictUser(userId).thenReturn(withPassword(user, newPassword)))
+            .defaultIfEmpty(user);
+    }
+
+    private static UserDetails withPassword(UserDetails user, String password) {
+        return org.springframework.security.core.userdetails.User.withUserDetails(user).password(password).build();
+    }
+}
@@ -1,8 +1,13 @@
 package api.security;
 
+import api.config.ApplicationProperties;
 import api.domain.Authority;
 import api.domain.User;
 import api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.util.*;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
@@ -12,29 +17,98 @@ import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Mono;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The users are cached by lowercase login or email, for {@code application.security.user-details-cache.time-to-live}.
+ * Only the activated users that were found are cached. {@link #evictUser(Long)} must be called when a user is modified.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements ReactiveUserDetailsService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
+    public static final String CACHE_NAME = "userDetails";
+
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
+
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final AsyncCache<String, CachedUserDetails> cache;
+
+    public DomainUserDetailsService(UserRepository userRepository, ApplicationProperties applicationProperties, MeterRegistry registry) {
         this.userRepository = userRepository;
+        ApplicationProperties.Security.UserDetailsCache cacheProperties = applicationProperties.getSecurity().getUserDetailsCache();
+        if (cacheProperties.getMaximumSize() > 0) {
+            this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getTimeToLive())
+                .recordStats()
+                .buildAsync();
+            CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Mono<UserDetails> findByUsername(final String login) {
         LOG.debug("Authenticating {}", login);
+        Mono<CachedUserDetails> userDetails = cache == null ? loadUserDetails(login) : findCachedUserDetails(login);
+        // Copy the cached user, so that erasing the credentials of the authentication does not change the cache
+        return userDetails.map(cached ->
+            org.springframework.security.core.userdetails.User.withUserDetails(cached.userDetails()).build()
+        );
+    }
+
+    private Mono<CachedUserDetails> findCachedUserDetails(String login) {
+        String key = login.toLowerCase(Locale.ENGLISH);
+        // The load is shared by the concurrent logins of the same user: cancelling one of them must not cancel it
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loadUserDetails(login).toFuture()), true);
+    }
 
-        if (new EmailValidator().isValid(login, null)) {
+    /**
+     * Removes the given user from the cache, now and when the current transaction completes.
+     *
+     * @param userId the id of the modified user.
+     * @return a completed {@link Mono}.
+     */
+    public Mono<Void> evictUser(Long userId) {
+        if (cache == null) {
+            return Mono.empty();
+        }
+        evict(userId);
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(synchronizationManager ->
+                synchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCompletion(int status) {
+                            return Mono.fromRunnable(() -> evict(userId));
+                        }
+                    }
+                )
+            )
+            .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+            .then();
+    }
+
+    private void evict(Long userId) {
+        // The users still being loaded are evicted too: they may have been read before the modification
+        cache
+            .asMap()
+            .values()
+            .removeIf(future -> !future.isDone() || future.isCompletedExceptionally() || Objects.equals(future.join().userId(), userId));
+    }
+
+    private Mono<CachedUserDetails> loadUserDetails(String login) {
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .switchIfEmpty(Mono.error(new UsernameNotFoundException("User with email " + login + " was not found in the database")))
@@ -48,7 +122,7 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
             .map(user -> createSpringSecurityUser(lowercaseLogin, user));
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private CachedUserDetails createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
@@ -58,6 +132,11 @@ public class DomainUserDetailsService implements ReactiveUserDetailsService {
             .map(Authority::getName)
             .map(SimpleGrantedAuthority::new)
             .toList();
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        return new CachedUserDetails(
+            user.getId(),
+            new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities)
+        );
     }
+
+    private record CachedUserDetails(Long userId, UserDetails userDetails) {}
 }
@@ -0,0 +1,146 @@
+package api.security;
+
+import api.config.ApplicationProperties;
+import api.management.SecurityMetersService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the login attempts per client address and per login, before their credentials are checked.
+ * <p>
+ * Each address and each login has a token bucket, kept as the time at which it will be full again (the theoretical
+ * arrival time of the generic cell rate algorithm): taking a token is a compare-and-set of this time, without lock nor
+ * allocation. A bucket idle long enough to be full again is evicted, which is the same as keeping it.
+ * <p>
+ * A login is also locked out after consecutive failed attempts, for a duration doubled by each next failure. The failures
+ * are forgotten on a successful login, or after the maximum lockout duration.
+ */
+public class LoginRateLimiter {
+
+    private final ApplicationProperties.Security.LoginRateLimit properties;
+
+    private final SecurityMetersService metersService;
+
+    private final Ticker ticker;
+
+    private final Cache<String, AtomicLong> addressBuckets;
+
+    private final Cache<String, AtomicLong> loginBuckets;
+
+    private final Cache<String, Failures> failures;
+
+    public LoginRateLimiter(ApplicationProperties.Security.LoginRateLimit properties, SecurityMetersService metersService, Ticker ticker) {
+        this.properties = properties;
+        this.metersService = metersService;
+        this.ticker = ticker;
+        this.addressBuckets = buckets(properties.getAddress());
+        this.loginBuckets = buckets(properties.getLogin());
+        this.failures = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getLockout().getMaximumDuration())
+            .ticker(ticker)
+            .build();
+    }
+
+    private Cache<String, AtomicLong> buckets(ApplicationProperties.Security.LoginRateLimit.Bucket bucket) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterAccess(bucket.getRefillInterval().multipliedBy(bucket.getCapacity()))
+            .ticker(ticker)
+            .build();
+    }
+
+    /**
+     * Takes an attempt from the bucket of a client address.
+     *
+     * @param address the client address.
+     * @return the time to wait before the next attempt, {@link Duration#ZERO} if the attempt is allowed.
+     */
+    public Duration acquireForAddress(String address) {
+        Duration wait = acquire(addressBuckets, address, properties.getAddress());
+        if (!wait.isZero()) {
+            metersService.trackLoginThrottledByAddress();
+        }
+        return wait;
+    }
+
+    /**
+     * Takes an attempt from the bucket of a login, unless it is locked out.
+     *
+     * @param login the login.
+     * @return the time to wait before the next attempt, {@link Duration#ZERO} if the attempt is allowed.
+     */
+    public Duration acquireForLogin(String login) {
+        String key = login.toLowerCase(Locale.ENGLISH);
+        Failures loginFailures = failures.getIfPresent(key);
+        long now = ticker.read();
+        if (loginFailures != null && loginFailures.lockedUntil() - now > 0) {
+            metersService.trackLoginLockedOut();
+            return Duration.ofNanos(loginFailures.lockedUntil() - now);
+        }
+        Duration wait = acquire(loginBuckets, key, properties.getLogin());
+        if (!wait.isZero()) {
+            metersService.trackLoginThrottledByLogin();
+        }
+        return wait;
+    }
+
+    /**
+     * Records a failed attempt for a login, locking it out once it has failed too many times in a row.
+     *
+     * @param login the login.
+     */
+    public void loginFailed(String login) {
+        ApplicationProperties.Security.LoginRateLimit.Lockout lockout = properties.getLockout();
+        long now = ticker.read();
+        failures
+            .asMap()
+            .compute(login.toLowerCase(Locale.ENGLISH), (key, previous) -> {
+                int count = previous == null ? 1 : previous.count() + 1;
+                if (count < lockout.getFailures()) {
+                    return new Failures(count, now);
+                }
+                long maximumDuration = lockout.getMaximumDuration().toNanos();
+                long duration = lockout.getDuration().toNanos();
+                for (int i = lockout.getFailures(); i < count && duration < maximumDuration; i++) {
+                    duration *= 2;
+                }
+                return new Failures(count, now + Math.min(duration, maximumDuration));
+            });
+    }
+
+    /**
+     * Forgets the failed attempts of a login.
+     *
+     * @param login the login.
+     */
+    public void loginSucceeded(String login) {
+        failures.invalidate(login.toLowerCase(Locale.ENGLISH));
+    }
+
+    private Duration acquire(Cache<String, AtomicLong> buckets, String key, ApplicationProperties.Security.LoginRateLimit.Bucket bucket) {
+        long interval = bucket.getRefillInterval().toNanos();
+        long tolerance = interval * (bucket.getCapacity() - 1);
+        long now = ticker.read();
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            if (start - now > tolerance) {
+                return Duration.ofNanos(start - now - tolerance);
+            }
+            if (fullAt.compareAndSet(current, start + interval)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * The consecutive failed attempts of a login, and the {@link Ticker} time until which it is locked out.
+     */
+    private record Failures(int count, long lockedUntil) {}
+}
@@ -0,0 +1,62 @@
+package api.security;
+
+import api.management.SecurityMetersService;
+import com.nimbusds.jose.proc.BadJWSException;
+import com.nimbusds.jwt.proc.BadJWTException;
+import java.text.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts the tokens rejected by a {@link org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder} in the
+ * {@link SecurityMetersService}, by cause.
+ * <p>
+ * The cause is told by the type of the exception and of the Nimbus exception it wraps, without reading their messages:
+ * <ul>
+ *     <li>a {@link JwtValidationException} is a token rejected by the {@code JwtTimestampValidator}, the only validator of
+ *     the decoder, so an expired token.</li>
+ *     <li>a {@link ParseException} is a token that is not a JWT, a {@link BadJWTException} a JWT whose claims cannot be
+ *     read: both are malformed.</li>
+ *     <li>a {@link BadJWSException} is a signature that does not match.</li>
+ *     <li>any other {@link BadJwtException} is an unsigned token or a token signed with another algorithm.</li>
+ * </ul>
+ */
+public class MeteredReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MeteredReactiveJwtDecoder.class);
+
+    private final ReactiveJwtDecoder delegate;
+
+    private final SecurityMetersService metersService;
+
+    public MeteredReactiveJwtDecoder(ReactiveJwtDecoder delegate, SecurityMetersService metersService) {
+        this.delegate = delegate;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        // The Nimbus decoder throws the parsing and signature errors instead of returning them in the Mono
+        return Mono.defer(() -> delegate.decode(token)).doOnError(this::trackInvalidToken);
+    }
+
+    private void trackInvalidToken(Throwable e) {
+        Throwable cause = e.getCause();
+        if (e instanceof JwtValidationException) {
+            metersService.trackTokenExpired();
+        } else if (cause instanceof ParseException || cause instanceof BadJWTException) {
+            metersService.trackTokenMalformed();
+        } else if (cause instanceof BadJWSException) {
+            metersService.trackTokenInvalidSignature();
+        } else if (e instanceof BadJwtException) {
+            metersService.trackTokenUnsupported();
+        } else {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package api.security;
+
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This exception is thrown when too many passwords are waiting to be hashed.
+ */
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many password hashes in progress")
+public class PasswordHashingRejectedException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,151 @@
+package api.security;
+
+import api.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs the password hashes on a dedicated scheduler, instead of {@link Schedulers#boundedElastic()} that is shared with
+ * every other blocking task.
+ * <p>
+ * The scheduler has {@code application.security.password-hashing.threads} threads and a queue of
+ * {@code application.security.password-hashing.queue-capacity} hashes. When the queue is full the hash is rejected at
+ * once with a {@link PasswordHashingRejectedException}, answered with a {@code 503 (Service Unavailable)}, instead of
+ * waiting behind hashes that would take longer than the client is willing to wait.
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    public static final String EXECUTOR_NAME = "passwordHashing";
+
+    public static final String HASHING_METER_NAME = "security.password.hashing";
+    public static final String HASHING_METER_DESCRIPTION = "Time spent hashing passwords.";
+    public static final String HASHING_METER_OPERATION_DIMENSION = "operation";
+
+    public static final String REJECTED_METER_NAME = "security.password.hashing.rejected";
+    public static final String REJECTED_METER_DESCRIPTION = "Password hashes rejected because too many were waiting.";
+    public static final String REJECTED_METER_BASE_UNIT = "hashes";
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordEncoder timedPasswordEncoder;
+
+    private final Scheduler scheduler;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, ApplicationProperties applicationProperties, MeterRegistry registry) {
+        this.passwordEncoder = passwordEncoder;
+        this.encodeTimer = hashingTimerBuilder("encode").register(registry);
+        this.matchesTimer = hashingTimerBuilder("matches").register(registry);
+        this.rejectedCounter = Counter.builder(REJECTED_METER_NAME)
+            .baseUnit(REJECTED_METER_BASE_UNIT)
+            .description(REJECTED_METER_DESCRIPTION)
+            .register(registry);
+        this.timedPasswordEncoder = new TimedPasswordEncoder();
+
+        ApplicationProperties.Security.PasswordHashing properties = applicationProperties.getSecurity().getPasswordHashing();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            (runnable, rejectingExecutor) -> {
+                rejectedCounter.increment();
+                throw new PasswordHashingRejectedException("Too many password hashes waiting: " + rejectingExecutor.getQueue().size());
+            }
+        );
+        // Queue depth, active threads and completed hashes
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+        this.scheduler = Schedulers.fromExecutorService(executor, EXECUTOR_NAME);
+    }
+
+    private static Timer.Builder hashingTimerBuilder(String operation) {
+        return Timer.builder(HASHING_METER_NAME).description(HASHING_METER_DESCRIPTION).tag(HASHING_METER_OPERATION_DIMENSION, operation);
+    }
+
+    /**
+     * @return the scheduler to call the {@link #getPasswordEncoder() password encoder} on.
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @return the password encoder, recording the hashing time. It must only be called on the {@link #getScheduler() scheduler}.
+     */
+    public PasswordEncoder getPasswordEncoder() {
+        return timedPasswordEncoder;
+    }
+
+    /**
+     * Encodes the password on the password hashing scheduler.
+     *
+     * @param rawPassword the password to encode.
+     * @return the encoded password, or a {@link PasswordHashingRejectedException} if too many hashes are waiting.
+     */
+    public Mono<String> encode(CharSequence rawPassword) {
+        return onHashingScheduler(Mono.fromCallable(() -> timedPasswordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Checks the password on the password hashing scheduler.
+     *
+     * @param rawPassword the password to check.
+     * @param encodedPassword the stored encoded password.
+     * @return whether the password matches, or a {@link PasswordHashingRejectedException} if too many hashes are waiting.
+     */
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return onHashingScheduler(Mono.fromCallable(() -> timedPasswordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    private <T> Mono<T> onHashingScheduler(Mono<T> hash) {
+        // Reactor wraps the rejections of the executor, unwrap them so that they are answered with a 503
+        return hash.subscribeOn(scheduler).onErrorMap(e -> e.getCause() instanceof PasswordHashingRejectedException, Throwable::getCause);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    private final class TimedPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return passwordEncoder.upgradeEncoding(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package api.security;
+
+import api.management.SecurityMetersService;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rejects the tokens of the {@link TokenRevocationList}, once decoded by another decoder.
+ * <p>
+ * It must be the outermost decoder, so that the tokens are checked even when they were decoded from a cache.
+ */
+public class RevocationCheckingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final SecurityMetersService metersService;
+
+    public RevocationCheckingReactiveJwtDecoder(
+        ReactiveJwtDecoder delegate,
+        TokenRevocationList tokenRevocationList,
+        SecurityMetersService metersService
+    ) {
+        this.delegate = delegate;
+        this.tokenRevocationList = tokenRevocationList;
+        this.metersService = metersService;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return delegate
+            .decode(token)
+            .handle((jwt, sink) -> {
+                if (tokenRevocationList.isRevoked(jwt)) {
+                    metersService.trackTokenRevoked();
+                    sink.error(new BadJwtException("The token has been revoked"));
+                } else {
+                    sink.next(jwt);
+                }
+            });
+    }
+}
@@ -0,0 +1,124 @@
+package api.security;
+
+import api.domain.RevokedToken;
+import api.repository.RevokedTokenRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory copy of the {@link RevokedToken revoked tokens}, checked on every authenticated request.
+ * <p>
+ * The revoked {@code jti} are in an exact set, behind a Bloom filter that answers without hashing into the set for
+ * almost all the tokens, which are not revoked. The revocations of all the tokens of a user are in a map by login.
+ * Both are immutable and replaced as a whole, so the checks take no lock.
+ * <p>
+ * The revocations made by this instance are added at once, the ones made by the other instances are loaded from the
+ * database every {@code application.security.token-revocation.refresh-interval}.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private volatile Revocations revocations = new Revocations(List.of());
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    /**
+     * @param jwt a valid token.
+     * @return whether the token was revoked, by its {@code jti} or with all the tokens of its user.
+     */
+    public boolean isRevoked(Jwt jwt) {
+        Revocations current = revocations;
+        String jti = jwt.getId();
+        if (jti != null && current.jtiFilter().mightContain(jti) && current.jtis().contains(jti)) {
+            return true;
+        }
+        if (current.revokedUsers().isEmpty()) {
+            return false;
+        }
+        Instant revokedAt = current.revokedUsers().get(jwt.getSubject());
+        return revokedAt != null && (jwt.getIssuedAt() == null || !jwt.getIssuedAt().isAfter(revokedAt));
+    }
+
+    /**
+     * Adds a revocation stored in the database.
+     *
+     * @param revokedToken the revocation.
+     */
+    public synchronized void add(RevokedToken revokedToken) {
+        List<RevokedToken> all = new ArrayList<>(revocations.all());
+        all.add(revokedToken);
+        revocations = new Revocations(all);
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.token-revocation.refresh-interval:30s}")
+    public void refresh() {
+        reload().block();
+    }
+
+    /**
+     * Loads the revocations from the database, and forgets the expired ones. The current revocations are kept if they
+     * cannot be loaded.
+     *
+     * @return a {@link Mono} completed once loaded.
+     */
+    public Mono<Void> reload() {
+        return revokedTokenRepository
+            .findAllByExpiresAtAfter(Instant.now())
+            .collectList()
+            .doOnNext(this::replace)
+            .then()
+            .onErrorResume(e -> {
+                LOG.warn("Cannot load the revoked tokens, keeping the current ones: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private synchronized void replace(List<RevokedToken> loaded) {
+        // The revocations added while loading may not be loaded: keep them, a revocation is never cancelled
+        Instant now = Instant.now();
+        Set<Long> loadedIds = new HashSet<>();
+        loaded.forEach(revokedToken -> loadedIds.add(revokedToken.getId()));
+        List<RevokedToken> all = new ArrayList<>(loaded);
+        revocations
+            .all()
+            .stream()
+            .filter(revokedToken -> !loadedIds.contains(revokedToken.getId()) && revokedToken.getExpiresAt().isAfter(now))
+            .forEach(all::add);
+        revocations = new Revocations(all);
+        LOG.debug("Loaded {} token revocations", all.size());
+    }
+
+    private record Revocations(List<RevokedToken> all, Set<String> jtis, BloomFilter jtiFilter, Map<String, Instant> revokedUsers) {
+        Revocations(List<RevokedToken> all) {
+            this(all, new HashSet<>(), new BloomFilter(all.size(), FALSE_POSITIVE_PROBABILITY), new HashMap<>());
+            for (RevokedToken revokedToken : all) {
+                if (revokedToken.getJti() != null) {
+                    jtis.add(revokedToken.getJti());
+                    jtiFilter.put(revokedToken.getJti());
+                }
+                if (revokedToken.getLogin() != null) {
+                    revokedUsers.merge(revokedToken.getLogin(), revokedToken.getRevokedAt(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+        }
+    }
+}
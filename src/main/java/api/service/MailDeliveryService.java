@@ -0,0 +1,262 @@
+package api.service;
+
+import api.config.ApplicationProperties;
+import api.domain.MailMessage;
+import api.repository.MailMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Sends the mails queued in the outbox by the {@link MailService}.
+ * <p>
+ * The mails are claimed by batches of {@code application.mail.batch-size}, each sent over a single SMTP connection by
+ * one of the {@code application.mail.threads} threads dedicated to it: the blocking {@link JavaMailSender} never runs
+ * on the threads of the server. A sent mail is deleted from the outbox, a mail that could not be sent is sent again
+ * after a delay doubled by each attempt, up to {@code application.mail.max-attempts} attempts.
+ */
+@Service
+public class MailDeliveryService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailDeliveryService.class);
+
+    public static final String EXECUTOR_NAME = "mailDelivery";
+
+    public static final String PENDING_METER_NAME = "mail.outbox.pending";
+    public static final String PENDING_METER_DESCRIPTION = "Number of mails waiting in the outbox to be sent.";
+    public static final String PENDING_METER_BASE_UNIT = "mails";
+
+    public static final String SEND_METER_NAME = "mail.send";
+    public static final String SEND_METER_DESCRIPTION = "Time spent sending a batch of mails over a single SMTP connection.";
+    public static final String SEND_METER_OUTCOME_DIMENSION = "outcome";
+
+    public static final String DELIVERED_METER_NAME = "mail.outbox.delivered";
+    public static final String DELIVERED_METER_DESCRIPTION = "Indicates the count of the mails sent, retried or abandoned.";
+    public static final String DELIVERED_METER_BASE_UNIT = "mails";
+    public static final String DELIVERED_METER_OUTCOME_DIMENSION = "outcome";
+
+    private static final int MAXIMUM_ERROR_LENGTH = 255;
+
+    private final MailMessageRepository mailMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.Mail properties;
+
+    private final Scheduler scheduler;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final Timer sendSuccessTimer;
+    private final Timer sendFailureTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter abandonedCounter;
+
+    public MailDeliveryService(
+        MailMessageRepository mailMessageRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMail();
+        Gauge.builder(PENDING_METER_NAME, pending, AtomicLong::get)
+            .baseUnit(PENDING_METER_BASE_UNIT)
+            .description(PENDING_METER_DESCRIPTION)
+            .register(registry);
+        this.sendSuccessTimer = sendTimerBuilder("success").register(registry);
+        this.sendFailureTimer = sendTimerBuilder("failure").register(registry);
+        this.sentCounter = deliveredCounterBuilder("sent").register(registry);
+        this.retriedCounter = deliveredCounterBuilder("retried").register(registry);
+        this.abandonedCounter = deliveredCounterBuilder("abandoned").register(registry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // At most one batch per thread is in flight, the queue never fills up
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            properties.getThreads(),
+            properties.getThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getThreads()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "mail-delivery-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(registry);
+        this.scheduler = Schedulers.fromExecutorService(executor, EXECUTOR_NAME);
+    }
+
+    private static Timer.Builder sendTimerBuilder(String outcome) {
+        return Timer.builder(SEND_METER_NAME).description(SEND_METER_DESCRIPTION).tag(SEND_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    private static Counter.Builder deliveredCounterBuilder(String outcome) {
+        return Counter.builder(DELIVERED_METER_NAME)
+            .baseUnit(DELIVERED_METER_BASE_UNIT)
+            .description(DELIVERED_METER_DESCRIPTION)
+            .tag(DELIVERED_METER_OUTCOME_DIMENSION, outcome);
+    }
+
+    /**
+     * Mails are sent as long as some are due.
+     * <p>
+     * This is scheduled to get fired every {@code application.mail.poll-interval} after the previous delivery.
+     */
+    @Scheduled(fixedDelayString = "${application.mail.poll-interval:2s}")
+    public void deliverPendingMails() {
+        deliver().block();
+    }
+
+    /**
+     * Sends the mails due, until none is left.
+     *
+     * @return the number of mails sent.
+     */
+    public Mono<Long> deliver() {
+        return Mono.defer(this::claimBatch)
+            .repeat()
+            .takeWhile(batch -> !batch.isEmpty())
+            .flatMap(this::sendBatch, properties.getThreads())
+            .reduce(0L, Long::sum)
+            .flatMap(sent -> mailMessageRepository.countPending(properties.getMaxAttempts()).doOnNext(pending::set).thenReturn(sent));
+    }
+
+    private Mono<List<MailMessage>> claimBatch() {
+        Instant now = Instant.now();
+        return mailMessageRepository
+            .claim(now, now.plus(properties.getLease()), properties.getMaxAttempts(), properties.getBatchSize())
+            .collectList();
+    }
+
+    private Mono<Long> sendBatch(List<MailMessage> batch) {
+        return Mono.fromCallable(() -> send(batch))
+            .subscribeOn(scheduler)
+            .flatMap(failures -> {
+                List<Long> sentIds = batch.stream().filter(mail -> !failures.containsKey(mail)).map(MailMessage::getId).toList();
+                sentCounter.increment(sentIds.size());
+                return mailMessageRepository
+                    .deleteAllById(sentIds)
+                    .thenMany(Flux.fromIterable(failures.entrySet()))
+                    .concatMap(failure -> scheduleNextAttempt(failure.getKey(), failure.getValue()))
+                    .then(Mono.just((long) sentIds.size()));
+            });
+    }
+
+    /**
+     * Sends the mails over a single connection.
+     *
+     * @return the mails that could not be sent, with the reason.
+     */
+    private Map<MailMessage, Exception> send(List<MailMessage> batch) {
+        Map<MailMessage, Exception> failures = new LinkedHashMap<>();
+        Map<MimeMessage, MailMessage> mailsByMessage = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        for (MailMessage mail : batch) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(mail);
+                mailsByMessage.put(mimeMessage, mail);
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException e) {
+                failures.put(mail, e);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return failures;
+        }
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(mimeMessages.toArray(MimeMessage[]::new));
+            sendSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (MailSendException e) {
+            sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (e.getFailedMessages().isEmpty()) {
+                mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+            } else {
+                e.getFailedMessages().forEach((mimeMessage, cause) -> failures.put(mailsByMessage.get(mimeMessage), cause));
+            }
+        } catch (MailException e) {
+            sendFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            mailsByMessage.values().forEach(mail -> failures.put(mail, e));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(MailMessage mail) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, mail.isMultipart(), StandardCharsets.UTF_8.name());
+        message.setTo(mail.getRecipient());
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getContent(), mail.isHtml());
+        return mimeMessage;
+    }
+
+    private Mono<Void> scheduleNextAttempt(MailMessage mail, Exception cause) {
+        String error = String.valueOf(cause.getMessage());
+        if (mail.getAttempts() >= properties.getMaxAttempts()) {
+            LOG.error("Email could not be sent to '{}' after {} attempts, giving up", mail.getRecipient(), mail.getAttempts(), cause);
+            abandonedCounter.increment();
+        } else {
+            LOG.warn("Email could not be sent to '{}' (attempt {}): {}", mail.getRecipient(), mail.getAttempts(), error);
+            retriedCounter.increment();
+        }
+        return mailMessageRepository.scheduleNextAttempt(
+            mail.getId(),
+            Instant.now().plus(backoff(mail.getAttempts())),
+            error.length() > MAXIMUM_ERROR_LENGTH ? error.substring(0, MAXIMUM_ERROR_LENGTH) : error
+        );
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(properties.getMaximumBackoff()) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(properties.getMaximumBackoff()) < 0 ? backoff : properties.getMaximumBackoff();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
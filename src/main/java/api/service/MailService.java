@@ -1,119 +1,97 @@
 package api.service;
 
+import api.domain.MailMessage;
 import api.domain.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
-import java.util.Locale;
+import api.repository.MailMessageRepository;
+import java.time.Instant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails asynchronously.
+ * <p>
+ * The emails are queued in the outbox, in the transaction of the caller, and sent later by the
+ * {@link MailDeliveryService}.
  */
 @Service
 public class MailService {
 
     private static final Logger LOG = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
+    private final MailMessageRepository mailMessageRepository;
 
-    private static final String BASE_URL = "baseUrl";
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private final JHipsterProperties jHipsterProperties;
-
-    private final JavaMailSender javaMailSender;
-
-    private final MessageSource messageSource;
-
-    private final SpringTemplateEngine templateEngine;
-
-    public MailService(
-        JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
-        MessageSource messageSource,
-        SpringTemplateEngine templateEngine
-    ) {
-        this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+    public MailService(MailMessageRepository mailMessageRepository, MailTemplateRenderer mailTemplateRenderer) {
+        this.mailMessageRepository = mailMessageRepository;
+        this.mailTemplateRenderer = mailTemplateRenderer;
     }
 
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        Mono.defer(() -> {
-            sendEmailSync(to, subject, content, isMultipart, isHtml);
-            return Mono.empty();
-        }).subscribe();
-    }
-
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    public Mono<Void> sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         LOG.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            LOG.warn("Email could not be sent to user '{}'", to, e);
-        }
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            MailMessage mailMessage = new MailMessage()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .multipart(isMultipart)
+                .html(isHtml)
+                .nextAttemptAt(now)
+                .createdAt(now);
+            return mailMessageRepository.save(mailMessage).then();
+        });
     }
 
-    public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        Mono.defer(() -> {
-            sendEmailFromTemplateSync(user, templateName, titleKey);
-            return Mono.empty();
-        }).subscribe();
+    public Mono<Void> sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        return Mono.defer(() -> {
+            if (user.getEmail() == null) {
+                LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
+                return Mono.empty();
+            }
+            return mailTemplateRenderer
+                .render(user, templateName, titleKey)
+                .flatMap(mail -> sendEmail(user.getEmail(), mail.subject(), mail.content(), false, true));
+        });
     }
 
-    private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
-        if (user.getEmail() == null) {
-            LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
-            return;
-        }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmailSync(user.getEmail(), subject, content, false, true);
+    /**
+     * Queues the same mail for many users, rendered in parallel, e.g. for a notification sent to all of them.
+     *
+     * @param users the recipients, the users without an email are skipped.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the key of the subject in the messages.
+     * @return the number of queued mails.
+     */
+    public Mono<Long> sendEmailsFromTemplate(Flux<User> users, String templateName, String titleKey) {
+        return mailTemplateRenderer
+            .renderAll(users.filter(user -> user.getEmail() != null), templateName, titleKey)
+            .concatMap(mail -> sendEmail(mail.user().getEmail(), mail.subject(), mail.content(), false, true).thenReturn(mail))
+            .count();
     }
 
-    public void sendActivationEmail(User user) {
+    public Mono<Void> sendActivationEmail(User user) {
         LOG.debug("Sending activation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
+        return sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    public void sendCreationEmail(User user) {
+    public Mono<Void> sendCreationEmail(User user) {
         LOG.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+        return sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    public void sendPasswordResetMail(User user) {
+    public Mono<Void> sendPasswordResetMail(User user) {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
+        return sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
 }
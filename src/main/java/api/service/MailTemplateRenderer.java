@@ -0,0 +1,147 @@
+package api.service;
+
+import api.config.ApplicationProperties;
+import api.domain.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Renders the Thymeleaf templates of the mails, on the {@code application.mail.render-threads} threads dedicated to it.
+ * <p>
+ * The parsed templates are kept by the template cache of Thymeleaf ({@code spring.thymeleaf.cache}, only disabled in
+ * development), the locale and the subject of a mail are cached by subject key and {@code langKey}.
+ */
+@Service
+public class MailTemplateRenderer implements DisposableBean {
+
+    public static final String CACHE_NAME = "mailSubjects";
+
+    public static final String SCHEDULER_NAME = "mail-render";
+
+    public static final String RENDER_METER_NAME = "mail.render";
+    public static final String RENDER_METER_DESCRIPTION = "Time spent rendering the template of a mail.";
+    public static final String RENDER_METER_TEMPLATE_DIMENSION = "template";
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final int MAXIMUM_CACHED_SUBJECTS = 1_000;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    private final int threads;
+
+    private final Scheduler scheduler;
+
+    private final MeterRegistry registry;
+
+    private final Cache<SubjectKey, LocalizedSubject> subjects;
+
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(
+        SpringTemplateEngine templateEngine,
+        MessageSource messageSource,
+        JHipsterProperties jHipsterProperties,
+        ApplicationProperties applicationProperties,
+        MeterRegistry registry
+    ) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = jHipsterProperties.getMail().getBaseUrl();
+        this.threads = applicationProperties.getMail().getRenderThreads();
+        this.registry = registry;
+        this.subjects = Caffeine.newBuilder().maximumSize(MAXIMUM_CACHED_SUBJECTS).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, subjects, CACHE_NAME);
+        // The first rendering of a template reads it from the classpath: the threads must allow blocking calls
+        this.scheduler = Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, SCHEDULER_NAME, 60, true);
+    }
+
+    /**
+     * Renders the mail of a user.
+     *
+     * @param user the recipient, whose {@code langKey} selects the language of the mail.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the key of the subject in the messages.
+     * @return the rendered mail.
+     */
+    public Mono<RenderedMail> render(User user, String templateName, String titleKey) {
+        return Mono.fromCallable(() -> renderNow(user, templateName, titleKey)).subscribeOn(scheduler);
+    }
+
+    /**
+     * Renders the mails of many users in parallel, e.g. for a notification sent to all of them.
+     *
+     * @param users the recipients, whose {@code langKey} selects the language of each mail.
+     * @param templateName the name of the Thymeleaf template.
+     * @param titleKey the key of the subject in the messages.
+     * @return the rendered mails, not in the order of the users.
+     */
+    public Flux<RenderedMail> renderAll(Flux<User> users, String templateName, String titleKey) {
+        return users.parallel(threads).runOn(scheduler).map(user -> renderNow(user, templateName, titleKey)).sequential();
+    }
+
+    private RenderedMail renderNow(User user, String templateName, String titleKey) {
+        Timer renderTimer = renderTimers.computeIfAbsent(templateName, this::renderTimer);
+        long start = System.nanoTime();
+        LocalizedSubject subject = subjects.get(new SubjectKey(titleKey, user.getLangKey()), this::loadSubject);
+        Context context = new Context(subject.locale());
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, baseUrl);
+        String content = templateEngine.process(templateName, context);
+        renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new RenderedMail(user, subject.subject(), content);
+    }
+
+    private LocalizedSubject loadSubject(SubjectKey key) {
+        Locale locale = Locale.forLanguageTag(key.langKey());
+        return new LocalizedSubject(locale, messageSource.getMessage(key.titleKey(), null, locale));
+    }
+
+    private Timer renderTimer(String templateName) {
+        return Timer.builder(RENDER_METER_NAME)
+            .description(RENDER_METER_DESCRIPTION)
+            .tag(RENDER_METER_TEMPLATE_DIMENSION, templateName)
+            .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+
+    /**
+     * A mail rendered for a user.
+     *
+     * @param user the recipient.
+     * @param subject the subject, in the language of the user.
+     * @param content the HTML content.
+     */
+    public record RenderedMail(User user, String subject, String content) {}
+
+    private record SubjectKey(String titleKey, String langKey) {}
+
+    private record LocalizedSubject(Locale locale, String subject) {}
+}
@@ -0,0 +1,161 @@
+package api.service;
+
+import api.config.ApplicationProperties;
+import api.domain.RefreshToken;
+import api.domain.User;
+import api.repository.RefreshTokenRepository;
+import api.repository.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service issuing the refresh tokens, which renew the JWTs of the users without checking their password again.
+ * <p>
+ * A refresh token is an opaque random value, stored as its SHA-256 hash: looking it up is a single indexed query. Each
+ * renewal replaces the token with a new one of the same family, and a replaced token presented again, stolen or
+ * replayed, revokes the whole family.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public RefreshTokenService(
+        RefreshTokenRepository refreshTokenRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Issues a refresh token, of a new family, to the given user.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the user asked to be remembered, extending the validity of the token.
+     * @return the refresh token, or an empty {@link Mono} if the user does not exist.
+     */
+    public Mono<String> createToken(String login, boolean rememberMe) {
+        LOG.debug("Request to create a refresh token for {}", login);
+        return userRepository
+            .findOneByLogin(login)
+            .flatMap(user -> save(new RefreshToken().userId(user.getId()).rememberMe(rememberMe)));
+    }
+
+    /**
+     * Uses a refresh token, replacing it with a new one.
+     *
+     * @param token the refresh token.
+     * @return the login of the user of the token and the new token, or an empty {@link Mono} if the token is unknown,
+     * expired or was already used.
+     */
+    public Mono<RenewedToken> renewToken(String token) {
+        String tokenHash = hash(token);
+        return refreshTokenRepository
+            .use(tokenHash, Instant.now())
+            .flatMap(used ->
+                userRepository
+                    .findById(used.getUserId())
+                    .map(User::getLogin)
+                    .zipWith(save(new RefreshToken().userId(used.getUserId()).familyId(used.getFamilyId()).rememberMe(used.isRememberMe())))
+                    .map(loginAndToken -> new RenewedToken(loginAndToken.getT1(), loginAndToken.getT2()))
+            )
+            .switchIfEmpty(revokeFamilyIfReused(tokenHash));
+    }
+
+    /**
+     * Revokes all the refresh tokens of the given user.
+     *
+     * @param userId the id of the user.
+     * @return a {@link Mono} completed once revoked.
+     */
+    public Mono<Void> revokeUserTokens(Long userId) {
+        LOG.debug("Request to revoke the refresh tokens of the user {}", userId);
+        return refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    private Mono<RenewedToken> revokeFamilyIfReused(String tokenHash) {
+        // Completes empty rather than in error, so that the revocation is committed
+        return refreshTokenRepository
+            .findOneByTokenHash(tokenHash)
+            .filter(RefreshToken::isUsed)
+            .flatMap(reused -> {
+                LOG.warn("Refresh token reused, revoking its family {}", reused.getFamilyId());
+                return refreshTokenRepository.deleteAllByFamilyId(reused.getFamilyId());
+            })
+            .then(Mono.empty());
+    }
+
+    private Mono<String> save(RefreshToken refreshToken) {
+        ApplicationProperties.Security.RefreshToken properties = applicationProperties.getSecurity().getRefreshToken();
+        refreshToken.expiresAt(
+            Instant.now().plus(refreshToken.isRememberMe() ? properties.getValidityForRememberMe() : properties.getValidity())
+        );
+        return Mono.fromSupplier(() -> {
+            if (refreshToken.getFamilyId() == null) {
+                refreshToken.familyId(UUID.randomUUID().toString());
+            }
+            return generateToken();
+        })
+            // The SecureRandom may read the entropy of the system, which blocks
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(token -> refreshTokenRepository.save(refreshToken.tokenHash(hash(token))).thenReturn(token));
+    }
+
+    private String generateToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * Refresh tokens are deleted once expired.
+     * <p>
+     * This is scheduled to get fired every day, at 02:30 (am).
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void removeExpiredTokens() {
+        refreshTokenRepository.deleteAllExpiredBefore(Instant.now()).block();
+    }
+
+    /**
+     * The login of the user of a renewed refresh token, and the token replacing it.
+     */
+    public record RenewedToken(String login, String refreshToken) {}
+}
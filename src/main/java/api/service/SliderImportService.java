@@ -0,0 +1,297 @@
+package api.service;
+
+import api.repository.UserRepository;
+import api.service.dto.SliderImportResultDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+/**
+ * Service importing sliders in bulk through the PostgreSQL {@code COPY FROM STDIN} protocol.
+ * <p>
+ * The content is either CSV, with a header and {@code ;} separated columns like
+ * {@code config/liquibase/fake-data/slider.csv}, or NDJSON with one {@code {"presentation": ..., "user_id": ...}} object per
+ * line. It is read line by line and the valid rows are sent to the database in chunks, so the memory used does not depend
+ * on the size of the import. The {@code id} column is ignored: the imported sliders get new ids from the database.
+ * <p>
+ * The rows are validated on the fly, the invalid ones are counted, reported and skipped. The users of each chunk are
+ * looked up with one query before the chunk is sent, so a row referring to a missing user is rejected instead of failing
+ * the whole import on the foreign key. The valid rows are copied in a single {@code COPY} statement, which is atomic.
+ */
+@Service
+public class SliderImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SliderImportService.class);
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    public static final String IMPORTED_ROWS_METER_NAME = "slider.import.rows";
+    public static final String IMPORT_THROUGHPUT_METER_NAME = "slider.import.throughput";
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int ROWS_PER_CHUNK = 1000;
+    private static final int PRESENTATION_MAX_LENGTH = 255;
+    private static final char CSV_SEPARATOR = ';';
+    private static final String COPY_SQL = "COPY slider (presentation, user_id) FROM STDIN WITH (FORMAT csv)";
+
+    private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes(List.of("\n"), true);
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private final DatabaseClient db;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Counter importedRowsCounter;
+    private final Counter rejectedRowsCounter;
+    private final DistributionSummary throughputSummary;
+
+    public SliderImportService(DatabaseClient db, UserRepository userRepository, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.db = db;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.importedRowsCounter = rowsCounterBuilder("imported").register(registry);
+        this.rejectedRowsCounter = rowsCounterBuilder("rejected").register(registry);
+        this.throughputSummary = DistributionSummary.builder(IMPORT_THROUGHPUT_METER_NAME)
+            .baseUnit("rows.per.second")
+            .description("Throughput of the slider bulk imports.")
+            .register(registry);
+    }
+
+    private static Counter.Builder rowsCounterBuilder(String result) {
+        return Counter.builder(IMPORTED_ROWS_METER_NAME)
+            .baseUnit("rows")
+            .description("Rows read by the slider bulk imports.")
+            .tag("result", result);
+    }
+
+    /**
+     * Import the sliders of the given content.
+     *
+     * @param content the CSV or NDJSON content.
+     * @param contentType the type of the content, {@link #TEXT_CSV} or {@link MediaType#APPLICATION_NDJSON}.
+     * @return the number of imported and rejected rows.
+     */
+    public Mono<SliderImportResultDTO> importSliders(Flux<DataBuffer> content, MediaType contentType) {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        LOG.debug("Request to import Sliders from {}", csv ? "CSV" : "NDJSON");
+        ImportState state = new ImportState(csv);
+        Flux<ByteBuf> chunks = LINE_DECODER.decode(content, STRING_TYPE, contentType, null)
+            .<Row>handle(state::parseLine)
+            .buffer(ROWS_PER_CHUNK)
+            .concatMap(state::validateChunk);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return db
+                .inConnection(connection -> unwrap(connection).copyIn(COPY_SQL, chunks))
+                .map(imported -> {
+                    long elapsed = System.nanoTime() - start;
+                    importedRowsCounter.increment(imported);
+                    if (elapsed > 0) {
+                        throughputSummary.record(imported * (double) TimeUnit.SECONDS.toNanos(1) / elapsed);
+                    }
+                    LOG.info("Imported {} sliders, rejected {} rows", imported, state.rejected);
+                    return new SliderImportResultDTO(imported, state.rejected, state.errors);
+                });
+        });
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object target = connection;
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped) {
+            target = wrapped.unwrap();
+        }
+        if (!(target instanceof PostgresqlConnection postgresqlConnection)) {
+            throw new IllegalStateException("The slider import requires a PostgreSQL connection");
+        }
+        return postgresqlConnection;
+    }
+
+    /**
+     * A parsed line, not validated yet.
+     */
+    private record Row(long lineNumber, String presentation, String userId, String error) {}
+
+    /**
+     * Parses and validates the lines of one import, in order.
+     */
+    private final class ImportState {
+
+        private final boolean csv;
+        private final List<String> errors = new ArrayList<>();
+        private Map<String, Integer> header;
+        private long lineNumber;
+        private long rejected;
+
+        ImportState(boolean csv) {
+            this.csv = csv;
+        }
+
+        void parseLine(String line, SynchronousSink<Row> sink) {
+            lineNumber++;
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+            if (line.isBlank()) {
+                return;
+            }
+            if (csv && header == null) {
+                header = parseHeader(line);
+                if (!header.containsKey("presentation") || !header.containsKey("user_id")) {
+                    sink.error(new IllegalArgumentException("The CSV header must contain the presentation and user_id columns"));
+                }
+                return;
+            }
+            String presentation;
+            String userId;
+            if (csv) {
+                List<String> values = splitCsv(line);
+                presentation = valueAt(values, header.get("presentation"));
+                userId = valueAt(values, header.get("user_id"));
+            } else {
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    sink.next(new Row(lineNumber, null, null, "invalid JSON"));
+                    return;
+                }
+                presentation = node.hasNonNull("presentation") ? node.get("presentation").asText() : null;
+                userId = node.hasNonNull("user_id") ? node.get("user_id").asText() : null;
+            }
+            sink.next(new Row(lineNumber, presentation, userId, null));
+        }
+
+        /**
+         * Validates the rows of a chunk, looking their users up in one query.
+         *
+         * @return the CSV content of the valid rows, or an empty {@link Mono} if there is none.
+         */
+        Mono<ByteBuf> validateChunk(List<Row> rows) {
+            Set<Long> userIds = rows.stream().map(row -> parseUserId(row.userId())).filter(Objects::nonNull).collect(Collectors.toSet());
+            Mono<Set<Long>> existingUserIds = userIds.isEmpty()
+                ? Mono.just(Set.of())
+                : userRepository.findIdsByIdIn(userIds).collect(Collectors.toSet());
+            return existingUserIds.mapNotNull(existing -> {
+                StringBuilder copy = new StringBuilder();
+                for (Row row : rows) {
+                    String line = validate(row, existing);
+                    if (line != null) {
+                        copy.append(line);
+                    }
+                }
+                return copy.isEmpty() ? null : Unpooled.wrappedBuffer(copy.toString().getBytes(StandardCharsets.UTF_8));
+            });
+        }
+
+        private String validate(Row row, Set<Long> existingUserIds) {
+            if (row.error() != null) {
+                return reject(row, row.error());
+            }
+            String presentation = row.presentation();
+            if (presentation == null) {
+                return reject(row, "presentation must not be null");
+            }
+            if (presentation.length() > PRESENTATION_MAX_LENGTH) {
+                return reject(row, "presentation must not be longer than " + PRESENTATION_MAX_LENGTH + " characters");
+            }
+            Long user = parseUserId(row.userId());
+            if (user == null) {
+                return reject(row, "user_id must be a number");
+            }
+            if (!existingUserIds.contains(user)) {
+                return reject(row, "user " + user + " not found");
+            }
+            return '"' + presentation.replace("\"", "\"\"") + "\"," + user + '\n';
+        }
+
+        private String reject(Row row, String error) {
+            rejected++;
+            rejectedRowsCounter.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + row.lineNumber() + ": " + error);
+            }
+            return null;
+        }
+    }
+
+    private static Long parseUserId(String userId) {
+        try {
+            return Long.valueOf(userId == null ? "" : userId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(), i);
+        }
+        return header;
+    }
+
+    private static String valueAt(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+
+    /**
+     * Splits a {@code ;} separated line, where values may be quoted with {@code "} and quotes escaped by doubling them.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == CSV_SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
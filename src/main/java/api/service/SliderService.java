@@ -1,12 +1,25 @@
 package api.service;
 
+import api.domain.Slider;
 import api.domain.criteria.SliderCriteria;
+import api.repository.KeysetCursor;
 import api.repository.SliderRepository;
+import api.repository.UserRepository;
+import api.service.dto.SliderBatchResultDTO;
 import api.service.dto.SliderDTO;
 import api.service.mapper.SliderMapper;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -15,19 +28,31 @@ import reactor.core.publisher.Mono;
 /**
  * Service Implementation for managing {@link api.domain.Slider}.
  */
+@Observed(name = "application.service")
 @Service
 @Transactional
 public class SliderService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SliderService.class);
 
+    /**
+     * Maximum number of sliders of a batch request.
+     */
+    public static final int BATCH_MAX_SIZE = 500;
+
     private final SliderRepository sliderRepository;
 
+    private final UserRepository userRepository;
+
     private final SliderMapper sliderMapper;
 
-    public SliderService(SliderRepository sliderRepository, SliderMapper sliderMapper) {
+    private final Validator validator;
+
+    public SliderService(SliderRepository sliderRepository, UserRepository userRepository, SliderMapper sliderMapper, Validator validator) {
         this.sliderRepository = sliderRepository;
+        this.userRepository = userRepository;
         this.sliderMapper = sliderMapper;
+        this.validator = validator;
     }
 
     /**
@@ -45,31 +70,152 @@ public class SliderService {
      * Update a slider.
      *
      * @param sliderDTO the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if it does not exist.
      */
     public Mono<SliderDTO> update(SliderDTO sliderDTO) {
         LOG.debug("Request to update Slider : {}", sliderDTO);
-        return sliderRepository.save(sliderMapper.toEntity(sliderDTO)).map(sliderMapper::toDto);
+        return sliderRepository.update(sliderMapper.toEntity(sliderDTO)).map(sliderMapper::toDto);
     }
 
     /**
-     * Partially update a slider.
+     * Create the sliders without id and update the sliders with an id, in one transaction.
+     * <p>
+     * The sliders are validated together first: the invalid ones, including those referring to a missing user, are
+     * reported and skipped. The others are written with one batched statement for the creations and one for the updates.
+     * A slider with a version is only updated if it was not modified since, otherwise it is reported as a conflict.
      *
-     * @param sliderDTO the entity to update partially.
-     * @return the persisted entity.
+     * @param sliderDTOs the entities to save.
+     * @return the result of each slider, in the order of the given list.
      */
-    public Mono<SliderDTO> partialUpdate(SliderDTO sliderDTO) {
-        LOG.debug("Request to partially update Slider : {}", sliderDTO);
+    public Mono<List<SliderBatchResultDTO>> saveAll(List<SliderDTO> sliderDTOs) {
+        LOG.debug("Request to save a batch of {} Sliders", sliderDTOs.size());
+        SliderBatchResultDTO[] results = new SliderBatchResultDTO[sliderDTOs.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < sliderDTOs.size(); i++) {
+            SliderDTO sliderDTO = sliderDTOs.get(i);
+            String violations = validate(sliderDTO);
+            if (violations != null) {
+                results[i] = new SliderBatchResultDTO(i, sliderDTO.getId(), SliderBatchResultDTO.Status.INVALID, violations);
+            } else {
+                valid.add(i);
+            }
+        }
+        Set<Long> userIds = valid.stream().map(i -> sliderDTOs.get(i).getUser().getId()).collect(Collectors.toSet());
+        Mono<Set<Long>> existingUserIds = userIds.isEmpty()
+            ? Mono.just(Set.of())
+            : userRepository.findIdsByIdIn(userIds).collect(Collectors.toSet());
+
+        return existingUserIds.flatMap(existing -> {
+            List<Integer> creations = new ArrayList<>();
+            List<Integer> updates = new ArrayList<>();
+            for (int i : valid) {
+                SliderDTO sliderDTO = sliderDTOs.get(i);
+                if (!existing.contains(sliderDTO.getUser().getId())) {
+                    results[i] = new SliderBatchResultDTO(i, sliderDTO.getId(), SliderBatchResultDTO.Status.INVALID, "user: not found");
+                } else if (sliderDTO.getId() == null) {
+                    creations.add(i);
+                } else {
+                    updates.add(i);
+                }
+            }
+            Mono<Void> created = sliderRepository
+                .insertAll(toEntities(sliderDTOs, creations))
+                .index()
+                .doOnNext(inserted -> {
+                    int i = creations.get(inserted.getT1().intValue());
+                    results[i] = new SliderBatchResultDTO(i, inserted.getT2().getId(), SliderBatchResultDTO.Status.CREATED, null);
+                })
+                .then();
+            List<Integer> missed = new ArrayList<>();
+            Mono<Void> updated = sliderRepository
+                .updateAll(toEntities(sliderDTOs, updates))
+                .index()
+                .doOnNext(rowsUpdated -> {
+                    int i = updates.get(rowsUpdated.getT1().intValue());
+                    if (rowsUpdated.getT2() > 0) {
+                        results[i] = new SliderBatchResultDTO(i, sliderDTOs.get(i).getId(), SliderBatchResultDTO.Status.UPDATED, null);
+                    } else {
+                        missed.add(i);
+                    }
+                })
+                .then(Mono.defer(() -> reportMissedUpdates(sliderDTOs, missed, results)));
+            return created.then(updated).then(Mono.fromSupplier(() -> Arrays.asList(results)));
+        });
+    }
 
+    /**
+     * Reports the sliders which were not updated: those which still exist were modified since the version they carry.
+     */
+    private Mono<Void> reportMissedUpdates(List<SliderDTO> sliderDTOs, List<Integer> missed, SliderBatchResultDTO[] results) {
+        if (missed.isEmpty()) {
+            return Mono.empty();
+        }
+        Set<Long> ids = missed.stream().map(i -> sliderDTOs.get(i).getId()).collect(Collectors.toSet());
         return sliderRepository
-            .findById(sliderDTO.getId())
-            .map(existingSlider -> {
-                sliderMapper.partialUpdate(existingSlider, sliderDTO);
+            .findIdsByIdIn(ids)
+            .collect(Collectors.toSet())
+            .doOnNext(existing -> {
+                for (int i : missed) {
+                    Long id = sliderDTOs.get(i).getId();
+                    SliderBatchResultDTO.Status status = existing.contains(id)
+                        ? SliderBatchResultDTO.Status.CONFLICT
+                        : SliderBatchResultDTO.Status.NOT_FOUND;
+                    results[i] = new SliderBatchResultDTO(i, id, status, null);
+                }
+            })
+            .then();
+    }
 
-                return existingSlider;
+    /**
+     * Delete the sliders with the given ids, in one transaction.
+     *
+     * @param ids the ids of the entities.
+     * @return the result of each id, in the order of the given list.
+     */
+    public Mono<List<SliderBatchResultDTO>> deleteAll(List<Long> ids) {
+        LOG.debug("Request to delete a batch of {} Sliders", ids.size());
+        return sliderRepository
+            .deleteAllByIdIn(ids)
+            .index()
+            .map(rowsDeleted -> {
+                int i = rowsDeleted.getT1().intValue();
+                SliderBatchResultDTO.Status status = rowsDeleted.getT2() > 0
+                    ? SliderBatchResultDTO.Status.DELETED
+                    : SliderBatchResultDTO.Status.NOT_FOUND;
+                return new SliderBatchResultDTO(i, ids.get(i), status, null);
             })
-            .flatMap(sliderRepository::save)
-            .map(sliderMapper::toDto);
+            .collectList();
+    }
+
+    private String validate(SliderDTO sliderDTO) {
+        Set<ConstraintViolation<SliderDTO>> violations = validator.validate(sliderDTO);
+        if (!violations.isEmpty()) {
+            return violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        }
+        if (sliderDTO.getUser().getId() == null) {
+            return "user.id: must not be null";
+        }
+        return null;
+    }
+
+    private List<Slider> toEntities(List<SliderDTO> sliderDTOs, List<Integer> indexes) {
+        return indexes.stream().map(i -> sliderMapper.toEntity(sliderDTOs.get(i))).toList();
+    }
+
+    /**
+     * Partially update a slider.
+     *
+     * @param sliderDTO the entity to update partially, only its non null fields are updated.
+     * @return the persisted entity, or empty if it does not exist.
+     */
+    public Mono<SliderDTO> partialUpdate(SliderDTO sliderDTO) {
+        LOG.debug("Request to partially update Slider : {}", sliderDTO);
+
+        return sliderRepository.updateNonNullColumns(sliderMapper.toEntity(sliderDTO)).map(sliderMapper::toDto);
     }
 
     /**
@@ -84,6 +230,34 @@ public class SliderService {
         return sliderRepository.findByCriteria(criteria, pageable).map(sliderMapper::toDto);
     }
 
+    /**
+     * Find a keyset page of sliders by Criteria.
+     *
+     * @param criteria filtering criteria.
+     * @param order the sort order of the page.
+     * @param pageSize the maximum number of sliders to return.
+     * @param after the cursor of the last slider of the previous page, or {@code null} for the first page.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<SliderDTO> findByCriteria(SliderCriteria criteria, Sort.Order order, int pageSize, KeysetCursor after) {
+        LOG.debug("Request to get a keyset page of Sliders by Criteria after {}", after);
+        return sliderRepository.findByCriteria(criteria, order, pageSize, after).map(sliderMapper::toDto);
+    }
+
+    /**
+     * Stream all the sliders matching the criteria, without paging.
+     *
+     * @param criteria filtering criteria.
+     * @param sort the sort order, unsorted for the database order.
+     * @return the entities, read from the database as they are requested.
+     */
+    @Transactional(readOnly = true)
+    public Flux<SliderDTO> streamByCriteria(SliderCriteria criteria, Sort sort) {
+        LOG.debug("Request to stream all Sliders by Criteria");
+        return sliderRepository.streamByCriteria(criteria, sort).map(sliderMapper::toDto);
+    }
+
     /**
      * Find the count of sliders by criteria.
      * @param criteria filtering criteria
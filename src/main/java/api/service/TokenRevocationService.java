@@ -0,0 +1,91 @@
+package api.service;
+
+import api.config.ApplicationProperties;
+import api.domain.RevokedToken;
+import api.repository.RevokedTokenRepository;
+import api.repository.UserRepository;
+import api.security.TokenRevocationList;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service revoking JWTs before their expiration.
+ * <p>
+ * A revocation is stored until all the JWTs it revokes have expired, that is for the validity of the access tokens. The
+ * refresh tokens are not covered by the revocation, they are deleted instead.
+ */
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final UserRepository userRepository;
+
+    private final TokenRevocationList tokenRevocationList;
+
+    private final RefreshTokenService refreshTokenService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public TokenRevocationService(
+        RevokedTokenRepository revokedTokenRepository,
+        UserRepository userRepository,
+        TokenRevocationList tokenRevocationList,
+        RefreshTokenService refreshTokenService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenService = refreshTokenService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Revokes the token with the given id.
+     *
+     * @param jti the {@code jti} claim of the token.
+     * @return a {@link Mono} completed once revoked.
+     */
+    public Mono<Void> revokeToken(String jti) {
+        LOG.debug("Request to revoke the token {}", jti);
+        return save(new RevokedToken().jti(jti)).then();
+    }
+
+    /**
+     * Revokes all the tokens issued until now to the given user, and their refresh tokens.
+     *
+     * @param login the login of the user.
+     * @return the revocation, or an empty {@link Mono} if the user does not exist.
+     */
+    public Mono<RevokedToken> revokeUserTokens(String login) {
+        LOG.debug("Request to revoke the tokens of {}", login);
+        return userRepository
+            .findOneByLogin(login)
+            .flatMap(user -> refreshTokenService.revokeUserTokens(user.getId()).then(save(new RevokedToken().login(user.getLogin()))));
+    }
+
+    private Mono<RevokedToken> save(RevokedToken revokedToken) {
+        Instant now = Instant.now();
+        revokedToken.revokedAt(now).expiresAt(now.plus(applicationProperties.getSecurity().getRefreshToken().getAccessTokenValidity()));
+        return revokedTokenRepository.save(revokedToken).doOnNext(tokenRevocationList::add);
+    }
+
+    /**
+     * Revocations are deleted once all the tokens they revoke have expired.
+     * <p>
+     * This is scheduled to get fired every day, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeExpiredRevocations() {
+        revokedTokenRepository.deleteAllExpiredBefore(Instant.now()).block();
+    }
+}
@@ -4,11 +4,15 @@ import api.config.Constants;
 import api.domain.Authority;
 import api.domain.User;
 import api.repository.AuthorityRepository;
+import api.repository.KeysetCursor;
 import api.repository.UserRepository;
 import api.security.AuthoritiesConstants;
+import api.security.DomainUserDetailsService;
+import api.security.PasswordHashingService;
 import api.security.SecurityUtils;
 import api.service.dto.AdminUserDTO;
 import api.service.dto.UserDTO;
+import io.micrometer.observation.annotation.Observed;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -17,8 +21,8 @@ import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -29,6 +33,7 @@ import tech.jhipster.security.RandomUtil;
 /**
  * Service class for managing users.
  */
+@Observed(name = "application.service")
 @Service
 public class UserService {
 
@@ -36,14 +41,26 @@ public class UserService {
 
     private final UserRepository userRepository;
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final DomainUserDetailsService userDetailsService;
+
+    private final MailService mailService;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordHashingService passwordHashingService,
+        AuthorityRepository authorityRepository,
+        DomainUserDetailsService userDetailsService,
+        MailService mailService
+    ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.authorityRepository = authorityRepository;
+        this.userDetailsService = userDetailsService;
+        this.mailService = mailService;
     }
 
     @Transactional
@@ -66,13 +83,16 @@ public class UserService {
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
-                user.setResetKey(null);
-                user.setResetDate(null);
-                return user;
-            })
+            .flatMap(user ->
+                passwordHashingService
+                    .encode(newPassword)
+                    .map(encryptedPassword -> {
+                        user.setPassword(encryptedPassword);
+                        user.setResetKey(null);
+                        user.setResetDate(null);
+                        return user;
+                    })
+            )
             .flatMap(this::saveUser);
     }
 
@@ -87,7 +107,8 @@ public class UserService {
                 user.setResetDate(Instant.now());
                 return user;
             })
-            .flatMap(this::saveUser);
+            .flatMap(this::saveUser)
+            .flatMap(user -> mailService.sendPasswordResetMail(user).thenReturn(user));
     }
 
     @Transactional
@@ -109,28 +130,25 @@ public class UserService {
                     return Mono.error(new EmailAlreadyUsedException());
                 }
             })
-            .publishOn(Schedulers.boundedElastic())
-            .then(
-                Mono.fromCallable(() -> {
-                    User newUser = new User();
-                    String encryptedPassword = passwordEncoder.encode(password);
-                    newUser.setLogin(userDTO.getLogin().toLowerCase());
-                    // new user gets initially a generated password
-                    newUser.setPassword(encryptedPassword);
-                    newUser.setFirstName(userDTO.getFirstName());
-                    newUser.setLastName(userDTO.getLastName());
-                    if (userDTO.getEmail() != null) {
-                        newUser.setEmail(userDTO.getEmail().toLowerCase());
-                    }
-                    newUser.setImageUrl(userDTO.getImageUrl());
-                    newUser.setLangKey(userDTO.getLangKey());
-                    // new user is not active
-                    newUser.setActivated(false);
-                    // new user gets registration key
-                    newUser.setActivationKey(RandomUtil.generateActivationKey());
-                    return newUser;
-                })
-            )
+            .then(passwordHashingService.encode(password))
+            .map(encryptedPassword -> {
+                User newUser = new User();
+                newUser.setLogin(userDTO.getLogin().toLowerCase());
+                // new user gets initially a generated password
+                newUser.setPassword(encryptedPassword);
+                newUser.setFirstName(userDTO.getFirstName());
+                newUser.setLastName(userDTO.getLastName());
+                if (userDTO.getEmail() != null) {
+                    newUser.setEmail(userDTO.getEmail().toLowerCase());
+                }
+                newUser.setImageUrl(userDTO.getImageUrl());
+                newUser.setLangKey(userDTO.getLangKey());
+                // new user is not active
+                newUser.setActivated(false);
+                // new user gets registration key
+                newUser.setActivationKey(RandomUtil.generateActivationKey());
+                return newUser;
+            })
             .flatMap(newUser -> {
                 Set<Authority> authorities = new HashSet<>();
                 return authorityRepository
@@ -140,7 +158,8 @@ public class UserService {
                     .doOnNext(user -> user.setAuthorities(authorities))
                     .flatMap(this::saveUser)
                     .doOnNext(user -> LOG.debug("Created Information for User: {}", user));
-            });
+            })
+            .flatMap(user -> mailService.sendActivationEmail(user).thenReturn(user));
     }
 
     @Transactional
@@ -162,17 +181,20 @@ public class UserService {
             .flatMap(authorityRepository::findById)
             .doOnNext(authority -> user.getAuthorities().add(authority))
             .then(Mono.just(user))
-            .publishOn(Schedulers.boundedElastic())
-            .map(newUser -> {
-                String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
-                newUser.setPassword(encryptedPassword);
-                newUser.setResetKey(RandomUtil.generateResetKey());
-                newUser.setResetDate(Instant.now());
-                newUser.setActivated(true);
-                return newUser;
-            })
+            .flatMap(newUser ->
+                passwordHashingService
+                    .encode(RandomUtil.generatePassword())
+                    .map(encryptedPassword -> {
+                        newUser.setPassword(encryptedPassword);
+                        newUser.setResetKey(RandomUtil.generateResetKey());
+                        newUser.setResetDate(Instant.now());
+                        newUser.setActivated(true);
+                        return newUser;
+                    })
+            )
             .flatMap(this::saveUser)
-            .doOnNext(user1 -> LOG.debug("Created Information for User: {}", user1));
+            .doOnNext(user1 -> LOG.debug("Created Information for User: {}", user1))
+            .flatMap(user1 -> mailService.sendCreationEmail(user1).thenReturn(user1));
     }
 
     /**
@@ -213,7 +235,7 @@ public class UserService {
     public Mono<Void> deleteUser(String login) {
         return userRepository
             .findOneByLogin(login)
-            .flatMap(user -> userRepository.delete(user).thenReturn(user))
+            .flatMap(user -> userRepository.delete(user).then(userDetailsService.evictUser(user.getId())).thenReturn(user))
             .doOnNext(user -> LOG.debug("Deleted User: {}", user))
             .then();
     }
@@ -262,6 +284,7 @@ public class UserService {
                     .flatMap(savedUser ->
                         Flux.fromIterable(user.getAuthorities())
                             .flatMap(authority -> userRepository.saveUserAuthority(savedUser.getId(), authority.getName()))
+                            .then(userDetailsService.evictUser(savedUser.getId()))
                             .then(Mono.just(savedUser))
                     );
             });
@@ -271,16 +294,15 @@ public class UserService {
     public Mono<Void> changePassword(String currentClearTextPassword, String newPassword) {
         return SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
-            .publishOn(Schedulers.boundedElastic())
-            .map(user -> {
-                String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
-                    throw new InvalidPasswordException();
-                }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
-                user.setPassword(encryptedPassword);
-                return user;
-            })
+            .flatMap(user ->
+                passwordHashingService
+                    .matches(currentClearTextPassword, user.getPassword())
+                    .flatMap(matches -> matches ? passwordHashingService.encode(newPassword) : Mono.error(new InvalidPasswordException()))
+                    .map(encryptedPassword -> {
+                        user.setPassword(encryptedPassword);
+                        return user;
+                    })
+            )
             .flatMap(this::saveUser)
             .doOnNext(user -> LOG.debug("Changed password for User: {}", user))
             .then();
@@ -291,6 +313,11 @@ public class UserService {
         return userRepository.findAllWithAuthorities(pageable).map(AdminUserDTO::new);
     }
 
+    @Transactional(readOnly = true)
+    public Flux<AdminUserDTO> getAllManagedUsers(Sort.Order order, int pageSize, KeysetCursor after) {
+        return userRepository.findAllWithAuthorities(order, pageSize, after).map(AdminUserDTO::new);
+    }
+
     @Transactional(readOnly = true)
     public Flux<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
@@ -0,0 +1,82 @@
+package api.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of one item of a slider batch request.
+ */
+public class SliderBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        CONFLICT,
+        INVALID,
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private String message;
+
+    public SliderBatchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SliderBatchResultDTO(int index, Long id, Status status, String message) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SliderBatchResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package api.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.util.Objects;
@@ -18,6 +19,12 @@ public class SliderDTO implements Serializable {
     @NotNull
     private UserDTO user;
 
+    /**
+     * Exchanged in the {@code ETag} and {@code If-Match} headers, not in the body.
+     */
+    @JsonIgnore
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -42,6 +49,14 @@ public class SliderDTO implements Serializable {
         this.user = user;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
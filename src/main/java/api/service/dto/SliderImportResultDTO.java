@@ -0,0 +1,63 @@
+package api.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a slider bulk import.
+ */
+public class SliderImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long imported;
+
+    private long rejected;
+
+    private List<String> errors = new ArrayList<>();
+
+    public SliderImportResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SliderImportResultDTO(long imported, long rejected, List<String> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errors = errors;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SliderImportResultDTO{" +
+            "imported=" + imported +
+            ", rejected=" + rejected +
+            ", errors=" + errors +
+            "}";
+    }
+}
@@ -0,0 +1,138 @@
+package api.web.filter;
+
+import api.security.LoginRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rejects the login attempts exceeding the limits of the {@link LoginRateLimiter} with status
+ * {@code 429 (Too Many Requests)}, before the user is loaded and their password checked.
+ * <p>
+ * The login is read from the request body, which is then replayed to the controller. The client address is the remote
+ * address of the request, resolved from the forwarded headers by {@code server.forward-headers-strategy}.
+ */
+public class LoginRateLimitingWebFilter implements WebFilter {
+
+    private static final String LOGIN_PATH = "/api/authenticate";
+
+    private static final int MAXIMUM_BODY_SIZE = 4096;
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    private final ObjectMapper objectMapper;
+
+    public LoginRateLimitingWebFilter(LoginRateLimiter loginRateLimiter, ObjectMapper objectMapper) {
+        this.loginRateLimiter = loginRateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.POST.equals(request.getMethod()) || !LOGIN_PATH.equals(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress != null) {
+            Duration wait = loginRateLimiter.acquireForAddress(remoteAddress.getHostString());
+            if (!wait.isZero()) {
+                return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, wait);
+            }
+        }
+        return DataBufferUtils.join(request.getBody(), MAXIMUM_BODY_SIZE)
+            .map(LoginRateLimitingWebFilter::toBytes)
+            .defaultIfEmpty(new byte[0])
+            .flatMap(body -> filterLogin(exchange, chain, body))
+            .onErrorResume(DataBufferLimitException.class, e -> reject(exchange, HttpStatus.PAYLOAD_TOO_LARGE, Duration.ZERO));
+    }
+
+    private Mono<Void> filterLogin(ServerWebExchange exchange, WebFilterChain chain, byte[] body) {
+        ServerWebExchange replayed = exchange.mutate().request(new ReplayedBodyRequest(exchange.getRequest(), body)).build();
+        String login = readLogin(body);
+        if (login == null) {
+            return chain.filter(replayed);
+        }
+        Duration wait = loginRateLimiter.acquireForLogin(login);
+        if (!wait.isZero()) {
+            return reject(exchange, HttpStatus.TOO_MANY_REQUESTS, wait);
+        }
+        return chain
+            .filter(replayed)
+            .doOnSuccess(done -> {
+                HttpStatusCode status = replayed.getResponse().getStatusCode();
+                if (HttpStatus.UNAUTHORIZED.equals(status)) {
+                    loginRateLimiter.loginFailed(login);
+                } else if (status != null && status.is2xxSuccessful()) {
+                    loginRateLimiter.loginSucceeded(login);
+                }
+            });
+    }
+
+    private String readLogin(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() ? username.textValue() : null;
+        } catch (IOException e) {
+            // Rejected by the controller
+            return null;
+        }
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, Duration wait) {
+        exchange.getResponse().setStatusCode(status);
+        if (!wait.isZero()) {
+            // Rounded up, so that a client waiting for it is not rejected again
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(wait.plusMillis(999).toSeconds()));
+        }
+        return exchange.getResponse().setComplete();
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * A request whose body, already read, is read again from a copy.
+     */
+    private static final class ReplayedBodyRequest extends ServerHttpRequestDecorator {
+
+        private final byte[] body;
+
+        private ReplayedBodyRequest(ServerHttpRequest delegate, byte[] body) {
+            super(delegate);
+            this.body = body;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)));
+        }
+    }
+}
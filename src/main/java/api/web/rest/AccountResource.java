@@ -2,7 +2,6 @@ package api.web.rest;
 
 import api.repository.UserRepository;
 import api.security.SecurityUtils;
-import api.service.MailService;
 import api.service.UserService;
 import api.service.dto.AdminUserDTO;
 import api.service.dto.PasswordChangeDTO;
@@ -38,12 +37,9 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
-
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    public AccountResource(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
     }
 
     /**
@@ -60,7 +56,7 @@ public class AccountResource {
         if (isPasswordLengthInvalid(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        return userService.registerUser(managedUserVM, managedUserVM.getPassword()).doOnSuccess(mailService::sendActivationEmail).then();
+        return userService.registerUser(managedUserVM, managedUserVM.getPassword()).then();
     }
 
     /**
@@ -150,9 +146,7 @@ public class AccountResource {
         return userService
             .requestPasswordReset(mail)
             .doOnSuccess(user -> {
-                if (Objects.nonNull(user)) {
-                    mailService.sendPasswordResetMail(user);
-                } else {
+                if (Objects.isNull(user)) {
                     // Pretend the request has been successful to prevent checking which emails really exist
                     // but log that an invalid attempt has been made
                     LOG.warn("Password reset requested for non existing mail");
@@ -3,33 +3,41 @@ package api.web.rest;
 import static api.security.SecurityUtils.AUTHORITIES_KEY;
 import static api.security.SecurityUtils.JWT_ALGORITHM;
 
+import api.config.ApplicationProperties;
+import api.service.RefreshTokenService;
 import api.web.rest.vm.LoginVM;
+import api.web.rest.vm.RefreshTokenVM;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Controller to authenticate users.
+ * <p>
+ * The JWTs are short-lived: once expired, they are renewed with the refresh token issued along with them, without the
+ * password of the user.
  */
 @RestController
 @RequestMapping("/api")
@@ -39,17 +47,26 @@ public class AuthenticateController {
 
     private final JwtEncoder jwtEncoder;
 
-    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds:0}")
-    private long tokenValidityInSeconds;
+    private final ReactiveAuthenticationManager authenticationManager;
 
-    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
-    private long tokenValidityInSecondsForRememberMe;
+    private final ReactiveUserDetailsService userDetailsService;
 
-    private final ReactiveAuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+
+    private final ApplicationProperties applicationProperties;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, ReactiveAuthenticationManager authenticationManager) {
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        ReactiveAuthenticationManager authenticationManager,
+        ReactiveUserDetailsService userDetailsService,
+        RefreshTokenService refreshTokenService,
+        ApplicationProperties applicationProperties
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManager = authenticationManager;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.applicationProperties = applicationProperties;
     }
 
     @PostMapping("/authenticate")
@@ -58,13 +75,42 @@ public class AuthenticateController {
             .flatMap(login ->
                 authenticationManager
                     .authenticate(new UsernamePasswordAuthenticationToken(login.getUsername(), login.getPassword()))
-                    .flatMap(auth -> Mono.fromCallable(() -> this.createToken(auth, login.isRememberMe())))
+                    .flatMap(auth ->
+                        Mono.fromCallable(() -> this.createToken(auth)).zipWith(
+                            refreshTokenService.createToken(auth.getName(), login.isRememberMe()),
+                            JWTToken::new
+                        )
+                    )
+            )
+            .map(this::toResponse);
+    }
+
+    /**
+     * {@code POST /authenticate/refresh} : renew the JWT of a user with their refresh token.
+     * <p>
+     * The refresh token is used once: it is replaced with the one returned along with the new JWT.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the new JWT and refresh token, or status {@code 401 (Unauthorized)} if the refresh token is invalid.
+     */
+    @PostMapping("/authenticate/refresh")
+    public Mono<ResponseEntity<JWTToken>> refresh(@Valid @RequestBody Mono<RefreshTokenVM> refreshTokenVM) {
+        return refreshTokenVM
+            .flatMap(refreshToken -> refreshTokenService.renewToken(refreshToken.getRefreshToken()))
+            .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid refresh token")))
+            .flatMap(renewed ->
+                userDetailsService
+                    .findByUsername(renewed.login())
+                    // The id of the new JWT is generated by a SecureRandom, which may block
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(user ->
+                        new JWTToken(
+                            createToken(UsernamePasswordAuthenticationToken.authenticated(user.getUsername(), null, user.getAuthorities())),
+                            renewed.refreshToken()
+                        )
+                    )
             )
-            .map(jwt -> {
-                HttpHeaders httpHeaders = new HttpHeaders();
-                httpHeaders.setBearerAuth(jwt);
-                return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
-            });
+            .map(this::toResponse);
     }
 
     /**
@@ -79,19 +125,15 @@ public class AuthenticateController {
         return principal == null ? null : principal.getName();
     }
 
-    public String createToken(Authentication authentication, boolean rememberMe) {
+    public String createToken(Authentication authentication) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
 
         Instant now = Instant.now();
-        Instant validity;
-        if (rememberMe) {
-            validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
-        } else {
-            validity = now.plus(this.tokenValidityInSeconds, ChronoUnit.SECONDS);
-        }
+        Instant validity = now.plus(applicationProperties.getSecurity().getRefreshToken().getAccessTokenValidity());
 
         // @formatter:off
         JwtClaimsSet claims = JwtClaimsSet.builder()
+            .id(UUID.randomUUID().toString())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -102,6 +144,12 @@ public class AuthenticateController {
         return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
     }
 
+    private ResponseEntity<JWTToken> toResponse(JWTToken token) {
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(token.getIdToken());
+        return new ResponseEntity<>(token, httpHeaders, HttpStatus.OK);
+    }
+
     /**
      * Object to return as body in JWT Authentication.
      */
@@ -109,8 +157,11 @@ public class AuthenticateController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -121,5 +172,14 @@ public class AuthenticateController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
@@ -1,10 +1,16 @@
 package api.web.rest;
 
 import api.domain.criteria.SliderCriteria;
-import api.repository.SliderRepository;
+import api.repository.KeysetCursor;
+import api.security.AuthoritiesConstants;
+import api.service.SliderImportService;
 import api.service.SliderService;
+import api.service.dto.SliderBatchResultDTO;
 import api.service.dto.SliderDTO;
+import api.service.dto.SliderImportResultDTO;
 import api.web.rest.errors.BadRequestAlertException;
+import api.web.util.ETagUtil;
+import api.web.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -14,19 +20,24 @@ import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.ForwardedHeaderUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link api.domain.Slider}.
@@ -39,16 +50,18 @@ public class SliderResource {
 
     private static final String ENTITY_NAME = "slider";
 
+    private static final List<String> KEYSET_ORDERED_PROPERTIES = List.of("id", "presentation");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final SliderService sliderService;
 
-    private final SliderRepository sliderRepository;
+    private final SliderImportService sliderImportService;
 
-    public SliderResource(SliderService sliderService, SliderRepository sliderRepository) {
+    public SliderResource(SliderService sliderService, SliderImportService sliderImportService) {
         this.sliderService = sliderService;
-        this.sliderRepository = sliderRepository;
+        this.sliderImportService = sliderImportService;
     }
 
     /**
@@ -77,20 +90,83 @@ public class SliderResource {
             });
     }
 
+    /**
+     * {@code POST  /sliders/batch} : Create the sliders without id and update the sliders with an id, in one transaction.
+     *
+     * @param sliderDTOs the sliderDTOs to save, at most {@value SliderService#BATCH_MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each sliderDTO, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many sliderDTOs.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<SliderBatchResultDTO>>> saveSliders(@RequestBody List<SliderDTO> sliderDTOs) {
+        LOG.debug("REST request to save a batch of {} Sliders", sliderDTOs.size());
+        checkBatchSize(sliderDTOs);
+        return sliderService.saveAll(sliderDTOs).map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code DELETE  /sliders/batch} : delete the sliders with the given ids, in one transaction.
+     *
+     * @param ids the ids of the sliders to delete, at most {@value SliderService#BATCH_MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the result of each id, in the same order,
+     * or with status {@code 400 (Bad Request)} if there are too many or null ids.
+     */
+    @DeleteMapping("/batch")
+    public Mono<ResponseEntity<List<SliderBatchResultDTO>>> deleteSliders(@RequestBody List<Long> ids) {
+        LOG.debug("REST request to delete a batch of {} Sliders", ids.size());
+        checkBatchSize(ids);
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return sliderService.deleteAll(ids).map(ResponseEntity::ok);
+    }
+
+    private static void checkBatchSize(List<?> batch) {
+        if (batch.size() > SliderService.BATCH_MAX_SIZE) {
+            throw new BadRequestAlertException("Too many sliders in the batch", ENTITY_NAME, "batchtoolarge");
+        }
+    }
+
+    /**
+     * {@code POST  /sliders/import} : Import sliders in bulk, from CSV with a header like {@code fake-data/slider.csv} or from NDJSON.
+     * <p>
+     * The invalid rows are skipped and reported, the valid ones are all imported or none.
+     *
+     * @param contentType the type of the content.
+     * @param content the rows to import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of imported and rejected rows,
+     * or with status {@code 400 (Bad Request)} if the CSV header is not valid.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<SliderImportResultDTO>> importSliders(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+        @RequestBody Flux<DataBuffer> content
+    ) {
+        LOG.debug("REST request to import Sliders from {}", contentType);
+        return sliderImportService
+            .importSliders(content, contentType)
+            .onErrorMap(IllegalArgumentException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "importinvalid"))
+            .map(ResponseEntity::ok);
+    }
+
     /**
      * {@code PUT  /sliders/:id} : Updates an existing slider.
      *
      * @param id the id of the sliderDTO to save.
      * @param sliderDTO the sliderDTO to update.
+     * @param ifMatch the ETag of the version of the slider to update, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated sliderDTO,
      * or with status {@code 400 (Bad Request)} if the sliderDTO is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the slider is not at the version of {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the sliderDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public Mono<ResponseEntity<SliderDTO>> updateSlider(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody SliderDTO sliderDTO
+        @Valid @RequestBody SliderDTO sliderDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Slider : {}, {}", id, sliderDTO);
         if (sliderDTO.getId() == null) {
@@ -100,22 +176,18 @@ public class SliderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return sliderRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
+        sliderDTO.setVersion(getExpectedVersion(ifMatch));
 
-                return sliderService
-                    .update(sliderDTO)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(result ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                            .body(result)
-                    );
-            });
+        return sliderService
+            .update(sliderDTO)
+            .switchIfEmpty(Mono.error(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .onErrorMap(OptimisticLockingFailureException.class, SliderResource::preconditionFailed)
+            .map(result ->
+                ResponseEntity.ok()
+                    .eTag(ETagUtil.eTag(result.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                    .body(result)
+            );
     }
 
     /**
@@ -123,16 +195,19 @@ public class SliderResource {
      *
      * @param id the id of the sliderDTO to save.
      * @param sliderDTO the sliderDTO to update.
+     * @param ifMatch the ETag of the version of the slider to update, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated sliderDTO,
      * or with status {@code 400 (Bad Request)} if the sliderDTO is not valid,
      * or with status {@code 404 (Not Found)} if the sliderDTO is not found,
+     * or with status {@code 412 (Precondition Failed)} if the slider is not at the version of {@code If-Match},
      * or with status {@code 500 (Internal Server Error)} if the sliderDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public Mono<ResponseEntity<SliderDTO>> partialUpdateSlider(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody SliderDTO sliderDTO
+        @NotNull @RequestBody SliderDTO sliderDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Slider partially : {}, {}", id, sliderDTO);
         if (sliderDTO.getId() == null) {
@@ -142,29 +217,40 @@ public class SliderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return sliderRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
+        sliderDTO.setVersion(getExpectedVersion(ifMatch));
+
+        return sliderService
+            .partialUpdate(sliderDTO)
+            .switchIfEmpty(Mono.error(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .onErrorMap(OptimisticLockingFailureException.class, SliderResource::preconditionFailed)
+            .map(res ->
+                ResponseEntity.ok()
+                    .eTag(ETagUtil.eTag(res.getVersion()))
+                    .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                    .body(res)
+            );
+    }
 
-                Mono<SliderDTO> result = sliderService.partialUpdate(sliderDTO);
+    private static Long getExpectedVersion(String ifMatch) {
+        try {
+            return ETagUtil.parseIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw preconditionFailed(e);
+        }
+    }
 
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(res ->
-                        ResponseEntity.ok()
-                            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                            .body(res)
-                    );
-            });
+    private static ResponseStatusException preconditionFailed(Throwable cause) {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "The slider was modified", cause);
     }
 
     /**
      * {@code GET  /sliders} : get all the sliders.
+     * <p>
+     * When the {@code after} parameter is present (empty for the first page), keyset pagination is used instead of page
+     * numbers: the next page is linked in a {@code Link: rel="next"} header and no total count is computed.
      *
      * @param pageable the pagination information.
+     * @param after the cursor of the last slider of the previous page, for keyset pagination.
      * @param request a {@link ServerHttpRequest} request.
      * @param criteria the criteria which the requested entities should match.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of sliders in body.
@@ -173,9 +259,13 @@ public class SliderResource {
     public Mono<ResponseEntity<List<SliderDTO>>> getAllSliders(
         SliderCriteria criteria,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
         ServerHttpRequest request
     ) {
         LOG.debug("REST request to get Sliders by criteria: {}", criteria);
+        if (after != null) {
+            return getAllSlidersAfter(criteria, pageable, after, request);
+        }
         return sliderService
             .countByCriteria(criteria)
             .zipWith(sliderService.findByCriteria(criteria, pageable).collectList())
@@ -191,6 +281,64 @@ public class SliderResource {
             );
     }
 
+    private Mono<ResponseEntity<List<SliderDTO>>> getAllSlidersAfter(
+        SliderCriteria criteria,
+        Pageable pageable,
+        String after,
+        ServerHttpRequest request
+    ) {
+        Sort.Order order = KeysetPaginationUtil.getKeysetOrder(pageable.getSort());
+        if (order == null || !KEYSET_ORDERED_PROPERTIES.contains(order.getProperty())) {
+            throw new BadRequestAlertException("Unsupported sort for keyset pagination", ENTITY_NAME, "sortinvalid");
+        }
+        KeysetCursor cursor = after.isEmpty() ? null : decodeCursor(after, order);
+        int pageSize = pageable.getPageSize();
+        return sliderService
+            .findByCriteria(criteria, order, pageSize, cursor)
+            .collectList()
+            .map(sliders -> {
+                KeysetCursor next = null;
+                if (sliders.size() == pageSize) {
+                    SliderDTO last = sliders.get(sliders.size() - 1);
+                    Object value = "presentation".equals(order.getProperty()) ? last.getPresentation() : last.getId();
+                    next = KeysetCursor.of(order.getProperty(), value, last.getId());
+                }
+                return ResponseEntity.ok()
+                    .headers(
+                        KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                            next
+                        )
+                    )
+                    .body(sliders);
+            });
+    }
+
+    private KeysetCursor decodeCursor(String after, Sort.Order order) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(after);
+            if (cursor.getProperty().equals(order.getProperty())) {
+                return cursor;
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.debug("Invalid keyset cursor: {}", after);
+        }
+        throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+    }
+
+    /**
+     * {@code GET  /sliders} : get all the sliders as a stream, without paging.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param sort the sort order.
+     * @return the {@link Flux} of sliders.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SliderDTO> getAllSlidersAsStream(SliderCriteria criteria, @org.springdoc.core.annotations.ParameterObject Sort sort) {
+        LOG.debug("REST request to stream Sliders by criteria: {}", criteria);
+        return sliderService.streamByCriteria(criteria, sort);
+    }
+
     /**
      * {@code GET  /sliders/count} : count all the sliders.
      *
@@ -205,15 +353,23 @@ public class SliderResource {
 
     /**
      * {@code GET  /sliders/:id} : get the "id" slider.
+     * <p>
+     * The version of the slider is sent as {@code ETag}: the body is not sent again if it matches {@code If-None-Match}.
+     * The version does not cover the login of the user, see {@link ETagUtil}.
      *
      * @param id the id of the sliderDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the sliderDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the sliderDTO,
+     * or with status {@code 304 (Not Modified)} if the sliderDTO matches {@code If-None-Match},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
     public Mono<ResponseEntity<SliderDTO>> getSlider(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Slider : {}", id);
-        Mono<SliderDTO> sliderDTO = sliderService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(sliderDTO);
+        // ResponseEntityResultHandler answers 304 without writing the body when the ETag matches If-None-Match
+        return sliderService
+            .findOne(id)
+            .map(sliderDTO -> ResponseEntity.ok().eTag(ETagUtil.eTag(sliderDTO.getVersion())).body(sliderDTO))
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
     }
 
     /**
@@ -0,0 +1,75 @@
+package api.web.rest;
+
+import api.config.Constants;
+import api.security.AuthoritiesConstants;
+import api.service.TokenRevocationService;
+import jakarta.validation.constraints.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller to revoke JWTs before their expiration.
+ * <p>
+ * The revoked tokens are rejected at once by this instance, and after
+ * {@code application.security.token-revocation.refresh-interval} at most by the other ones.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class TokenRevocationResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationResource.class);
+
+    private static final String JTI_REGEX = "^[0-9a-fA-F-]{1,36}$";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenRevocationResource(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * {@code POST  /admin/revoked-tokens/:jti} : Revokes a token.
+     *
+     * @param jti the {@code jti} claim of the token to revoke.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/revoked-tokens/{jti}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<Void>> revokeToken(@PathVariable("jti") @Pattern(regexp = JTI_REGEX) String jti) {
+        LOG.debug("REST request to revoke the token: {}", jti);
+        return tokenRevocationService
+            .revokeToken(jti)
+            .then(
+                Mono.just(ResponseEntity.noContent().headers(HeaderUtil.createAlert(applicationName, "tokenRevocation.revoked", jti)).build())
+            );
+    }
+
+    /**
+     * {@code POST  /admin/users/:login/revoked-tokens} : Revokes all the tokens issued until now to a user.
+     *
+     * @param login the login of the user.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/users/{login}/revoked-tokens")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public Mono<ResponseEntity<Void>> revokeUserTokens(@PathVariable("login") @Pattern(regexp = Constants.LOGIN_REGEX) String login) {
+        LOG.debug("REST request to revoke the tokens of User: {}", login);
+        return tokenRevocationService
+            .revokeUserTokens(login)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
+            .map(revokedToken ->
+                ResponseEntity.noContent().headers(HeaderUtil.createAlert(applicationName, "tokenRevocation.userRevoked", login)).build()
+            );
+    }
+}
@@ -2,14 +2,15 @@ package api.web.rest;
 
 import api.config.Constants;
 import api.domain.User;
+import api.repository.KeysetCursor;
 import api.repository.UserRepository;
 import api.security.AuthoritiesConstants;
-import api.service.MailService;
 import api.service.UserService;
 import api.service.dto.AdminUserDTO;
 import api.web.rest.errors.BadRequestAlertException;
 import api.web.rest.errors.EmailAlreadyUsedException;
 import api.web.rest.errors.LoginAlreadyUsedException;
+import api.web.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import java.net.URI;
@@ -80,6 +81,8 @@ public class UserResource {
         )
     );
 
+    private static final List<String> KEYSET_ORDERED_PROPERTIES = List.of("id", "login");
+
     private static final Logger LOG = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -89,12 +92,9 @@ public class UserResource {
 
     private final UserRepository userRepository;
 
-    private final MailService mailService;
-
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
     }
 
     /**
@@ -133,7 +133,6 @@ public class UserResource {
                 }
                 return userService.createUser(userDTO);
             })
-            .doOnSuccess(mailService::sendCreationEmail)
             .map(user -> {
                 try {
                     return ResponseEntity.created(new URI("/api/admin/users/" + user.getLogin()))
@@ -188,21 +187,29 @@ public class UserResource {
 
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
+     * <p>
+     * When the {@code after} parameter is present (empty for the first page), keyset pagination is used instead of page
+     * numbers: the next page is linked in a {@code Link: rel="next"} header and no total count is computed.
      *
      * @param request a {@link ServerHttpRequest} request.
      * @param pageable the pagination information.
+     * @param after the cursor of the last user of the previous page, for keyset pagination.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public Mono<ResponseEntity<Flux<AdminUserDTO>>> getAllUsers(
         @org.springdoc.core.annotations.ParameterObject ServerHttpRequest request,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
         LOG.debug("REST request to get all User for an admin");
         if (!onlyContainsAllowedProperties(pageable)) {
             return Mono.just(ResponseEntity.badRequest().build());
         }
+        if (after != null) {
+            return getAllUsersAfter(request, pageable, after);
+        }
 
         return userService
             .countManagedUsers()
@@ -216,6 +223,44 @@ public class UserResource {
             .map(headers -> ResponseEntity.ok().headers(headers).body(userService.getAllManagedUsers(pageable)));
     }
 
+    private Mono<ResponseEntity<Flux<AdminUserDTO>>> getAllUsersAfter(ServerHttpRequest request, Pageable pageable, String after) {
+        Sort.Order order = KeysetPaginationUtil.getKeysetOrder(pageable.getSort());
+        if (order == null || !KEYSET_ORDERED_PROPERTIES.contains(order.getProperty())) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        KeysetCursor cursor = null;
+        if (!after.isEmpty()) {
+            try {
+                cursor = KeysetCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+            if (!cursor.getProperty().equals(order.getProperty())) {
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+        }
+        int pageSize = pageable.getPageSize();
+        return userService
+            .getAllManagedUsers(order, pageSize, cursor)
+            .collectList()
+            .map(users -> {
+                KeysetCursor next = null;
+                if (users.size() == pageSize) {
+                    AdminUserDTO last = users.get(users.size() - 1);
+                    Object value = "login".equals(order.getProperty()) ? last.getLogin() : last.getId();
+                    next = KeysetCursor.of(order.getProperty(), value, last.getId());
+                }
+                return ResponseEntity.ok()
+                    .headers(
+                        KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                            next
+                        )
+                    )
+                    .body(Flux.fromIterable(users));
+            });
+    }
+
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
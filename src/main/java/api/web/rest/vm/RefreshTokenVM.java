@@ -0,0 +1,33 @@
+package api.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * View Model object for storing a refresh token.
+ */
+public class RefreshTokenVM {
+
+    @NotNull
+    @Size(min = 1, max = 100)
+    private String refreshToken;
+
+    @JsonProperty("refresh_token")
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    @JsonProperty("refresh_token")
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RefreshTokenVM{" +
+            "refreshToken='*****'" +
+            '}';
+    }
+}
@@ -0,0 +1,44 @@
+package api.web.util;
+
+/**
+ * Utility class for the {@code ETag} of the versioned entities.
+ * <p>
+ * The ETag of an entity is its version, as a strong entity tag. It is sent back in {@code If-Match} to update the entity
+ * only if it was not modified since, and in {@code If-None-Match} to get it only if it was modified.
+ * <p>
+ * The version only changes with the row of the entity: the fields a representation joins from other entities, e.g. the
+ * {@code user.login} of a slider, are not covered. After such a field changes, {@code If-None-Match} still answers
+ * {@code 304 (Not Modified)} until the entity itself is updated, so the clients must not rely on the ETag to refresh them.
+ */
+public final class ETagUtil {
+
+    private static final String ANY = "*";
+
+    private ETagUtil() {}
+
+    /**
+     * @param version the version of the entity.
+     * @return the ETag of the given version, or {@code null} if the version is unknown.
+     */
+    public static String eTag(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header expects.
+     *
+     * @param ifMatch the value of the {@code If-Match} header, or {@code null} if it is missing.
+     * @return the expected version, or {@code null} if any version matches.
+     * @throws IllegalArgumentException if the header is not a single strong ETag of a version.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            throw new IllegalArgumentException("Invalid If-Match: " + ifMatch);
+        }
+        return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+    }
+}
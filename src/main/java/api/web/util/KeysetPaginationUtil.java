@@ -0,0 +1,60 @@
+package api.web.util;
+
+import api.repository.KeysetCursor;
+import java.util.Iterator;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * In keyset mode the client sends an opaque {@code after} token instead of a page number, and receives the token of the
+ * next page in a {@code Link: rel="next"} header. No {@code X-Total-Count} is computed, so no count query is needed.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String ID_PROPERTY = "id";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Returns the order used for a keyset page.
+     * <p>
+     * Only one sorted property is supported, it can only be followed by the id, which is always used as tie breaker.
+     *
+     * @param sort the requested sort.
+     * @return the order of the page, sorted by ascending id if the request is not sorted, or {@code null} if the sort is not supported.
+     */
+    public static Sort.Order getKeysetOrder(Sort sort) {
+        Iterator<Sort.Order> orders = sort.iterator();
+        if (!orders.hasNext()) {
+            return Sort.Order.asc(ID_PROPERTY);
+        }
+        Sort.Order order = orders.next();
+        while (orders.hasNext()) {
+            if (!ID_PROPERTY.equals(orders.next().getProperty())) {
+                return null;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Generates the {@code Link} header pointing to the next keyset page.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param next the cursor of the last returned row, or {@code null} if there is no next page.
+     * @return the http headers.
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, KeysetCursor next) {
+        HttpHeaders headers = new HttpHeaders();
+        if (next != null) {
+            String link = uriBuilder.replaceQueryParam(AFTER_PARAMETER, next.encode()).replaceQueryParam("page").toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
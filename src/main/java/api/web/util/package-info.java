@@ -0,0 +1,4 @@
+/**
+ * Web utilities.
+ */
+package api.web.util;
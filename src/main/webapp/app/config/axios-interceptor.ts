@@ -1,13 +1,38 @@
-import axios, { type AxiosError } from 'axios';
+import axios, { type AxiosError, type InternalAxiosRequestConfig } from 'axios';
 import { Storage } from 'react-jhipster';
 
 const TIMEOUT = 1 * 60 * 1000;
 axios.defaults.timeout = TIMEOUT;
 axios.defaults.baseURL = SERVER_API_URL;
 
+const AUTH_TOKEN_KEY = 'jhi-authenticationToken';
+const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
+
+// A refresh token is used once: the requests failing together wait for the same refresh
+let pendingRefresh: Promise<boolean> | null = null;
+
+const refreshAuthToken = async (): Promise<boolean> => {
+  const storage = Storage.local.get(REFRESH_TOKEN_KEY) ? Storage.local : Storage.session;
+  const refreshToken = storage.get(REFRESH_TOKEN_KEY);
+  if (!refreshToken) {
+    return false;
+  }
+  // The expired token must not be sent with the refresh request, it would be rejected
+  storage.remove(AUTH_TOKEN_KEY);
+  storage.remove(REFRESH_TOKEN_KEY);
+  try {
+    const response = await axios.post<any>('api/authenticate/refresh', { refresh_token: refreshToken });
+    storage.set(AUTH_TOKEN_KEY, response.data.id_token);
+    storage.set(REFRESH_TOKEN_KEY, response.data.refresh_token);
+    return true;
+  } catch {
+    return false;
+  }
+};
+
 const setupAxiosInterceptors = onUnauthenticated => {
   const onRequestSuccess = config => {
-    const token = Storage.local.get('jhi-authenticationToken') || Storage.session.get('jhi-authenticationToken');
+    const token = Storage.local.get(AUTH_TOKEN_KEY) || Storage.session.get(AUTH_TOKEN_KEY);
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
     }
@@ -17,7 +42,23 @@ const setupAxiosInterceptors = onUnauthenticated => {
   const onResponseError = (err: AxiosError) => {
     const status = err.status || (err.response ? err.response.status : 0);
     if (status === 401) {
-      onUnauthenticated();
+      const config = err.config as InternalAxiosRequestConfig & { retried?: boolean };
+      const hasRefreshToken = Storage.local.get(REFRESH_TOKEN_KEY) || Storage.session.get(REFRESH_TOKEN_KEY);
+      if (!hasRefreshToken || !config || config.retried || config.url?.startsWith('api/authenticate')) {
+        onUnauthenticated();
+        return Promise.reject(err);
+      }
+      pendingRefresh ??= refreshAuthToken().finally(() => {
+        pendingRefresh = null;
+      });
+      return pendingRefresh.then(refreshed => {
+        if (!refreshed) {
+          onUnauthenticated();
+          return Promise.reject(err);
+        }
+        config.retried = true;
+        return axios(config);
+      });
     }
     return Promise.reject(err);
   };
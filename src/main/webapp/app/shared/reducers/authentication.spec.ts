@@ -224,5 +224,17 @@ describe('Authentication reducer tests', () => {
       expect(Storage.session.get(AUTH_TOKEN_KEY)).toBe(undefined);
       expect(Storage.local.get(AUTH_TOKEN_KEY)).toBe(undefined);
     });
+    it('clears the refresh token on clearAuthToken', async () => {
+      const REFRESH_TOKEN_KEY = 'jhi-refreshToken';
+      const loginResponse = { headers: { authorization: 'Bearer TestToken' }, data: { refresh_token: 'TestRefreshToken' } };
+      axios.post = sinon.stub().returns(Promise.resolve(loginResponse));
+
+      await store.dispatch(login('user', 'user', true));
+      expect(Storage.session.get(REFRESH_TOKEN_KEY)).toBe(undefined);
+      expect(Storage.local.get(REFRESH_TOKEN_KEY)).toBe('TestRefreshToken');
+      clearAuthToken();
+      expect(Storage.session.get(REFRESH_TOKEN_KEY)).toBe(undefined);
+      expect(Storage.local.get(REFRESH_TOKEN_KEY)).toBe(undefined);
+    });
   });
 });
@@ -0,0 +1,97 @@
+package api.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import api.domain.User;
+import api.repository.UserRepository;
+import api.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link LoggingAspect}.
+ */
+class LoggingAspectTest {
+
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private UserService userService;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserService(userRepository, null, null, null, null));
+        proxyFactory.addAspect(new LoggingAspect(new MockEnvironment(), meterRegistry));
+        userService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void timesTheElementsOfAFlux() {
+        when(userRepository.findAllByIdNotNullAndActivatedIsTrue(any())).thenReturn(Flux.just(user(1L, "john"), user(2L, "jane")));
+
+        assertThat(userService.getAllPublicUsers(Pageable.unpaged()).collectList().block()).hasSize(2);
+
+        assertThat(methodTimer("getAllPublicUsers", "success").count()).isEqualTo(1);
+        assertThat(
+            meterRegistry
+                .get(LoggingAspect.ELEMENTS_METER_NAME)
+                .tag(LoggingAspect.METHOD_METER_METHOD_DIMENSION, "getAllPublicUsers")
+                .summary()
+                .totalAmount()
+        ).isEqualTo(2);
+    }
+
+    @Test
+    void timesAMonoFromItsSubscription() {
+        when(userRepository.count()).thenReturn(Mono.just(2L));
+
+        Mono<Long> count = userService.countManagedUsers();
+
+        assertThat(methodTimer("countManagedUsers", "success").count()).isZero();
+        assertThat(count.block()).isEqualTo(2L);
+        assertThat(methodTimer("countManagedUsers", "success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void timesTheErrorsAndCancellations() {
+        when(userRepository.count()).thenReturn(Mono.error(new IllegalStateException("Database down")));
+        when(userRepository.findAllByIdNotNullAndActivatedIsTrue(any())).thenReturn(Flux.never());
+
+        assertThatIllegalStateException().isThrownBy(() -> userService.countManagedUsers().block());
+        userService.getAllPublicUsers(Pageable.unpaged()).subscribe().dispose();
+
+        assertThat(methodTimer("countManagedUsers", "error").count()).isEqualTo(1);
+        assertThat(methodTimer("getAllPublicUsers", "cancel").count()).isEqualTo(1);
+    }
+
+    private Timer methodTimer(String method, String outcome) {
+        return meterRegistry
+            .get(LoggingAspect.METHOD_METER_NAME)
+            .tag(LoggingAspect.METHOD_METER_CLASS_DIMENSION, "UserService")
+            .tag(LoggingAspect.METHOD_METER_METHOD_DIMENSION, method)
+            .tag(LoggingAspect.METHOD_METER_OUTCOME_DIMENSION, outcome)
+            .timer();
+    }
+
+    private static User user(Long id, String login) {
+        User user = new User();
+        user.setId(id);
+        user.setLogin(login);
+        return user;
+    }
+}
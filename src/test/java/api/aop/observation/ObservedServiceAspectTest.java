@@ -0,0 +1,90 @@
+package api.aop.observation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import api.repository.UserRepository;
+import api.service.UserService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link ObservedServiceAspect}.
+ */
+class ObservedServiceAspectTest {
+
+    private UserRepository userRepository;
+
+    private List<String> started;
+
+    private List<Observation.Context> stopped;
+
+    private UserService userService;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        started = new CopyOnWriteArrayList<>();
+        stopped = new CopyOnWriteArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry
+            .observationConfig()
+            .observationHandler(
+                new ObservationHandler<>() {
+                    @Override
+                    public void onStart(Observation.Context context) {
+                        started.add(context.getContextualName());
+                    }
+
+                    @Override
+                    public void onStop(Observation.Context context) {
+                        stopped.add(context);
+                    }
+
+                    @Override
+                    public boolean supportsContext(Observation.Context context) {
+                        return true;
+                    }
+                }
+            );
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserService(userRepository, null, null, null, null));
+        proxyFactory.addAspect(new ObservedServiceAspect(registry));
+        userService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void observesAFluxFromItsSubscription() {
+        when(userRepository.findAllByIdNotNullAndActivatedIsTrue(any())).thenReturn(Flux.empty());
+
+        Flux<?> users = userService.getAllPublicUsers(Pageable.unpaged());
+
+        assertThat(started).isEmpty();
+        users.blockLast();
+        assertThat(started).containsExactly("UserService#getAllPublicUsers");
+        assertThat(stopped).singleElement().satisfies(context -> {
+            assertThat(context.getName()).isEqualTo("application.service");
+            assertThat(context.getLowCardinalityKeyValue(ObservedServiceAspect.CLASS_KEY).getValue()).isEqualTo("UserService");
+            assertThat(context.getLowCardinalityKeyValue(ObservedServiceAspect.METHOD_KEY).getValue()).isEqualTo("getAllPublicUsers");
+        });
+    }
+
+    @Test
+    void observesTheErrorOfAMono() {
+        when(userRepository.count()).thenReturn(Mono.error(new IllegalStateException("Database down")));
+
+        userService.countManagedUsers().onErrorComplete().block();
+
+        assertThat(stopped).singleElement().satisfies(context -> assertThat(context.getError()).hasMessage("Database down"));
+    }
+}
@@ -0,0 +1,77 @@
+package api.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the regex replacement of the CRLF characters, as done before, with {@link CRLFLogConverter#transform}, on a
+ * clean and a forged message. Run with {@code ./gradlew jmh -Pjmh=CRLFLogConverterBenchmark}, the GC profiler shows the
+ * allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CRLFLogConverterBenchmark {
+
+    private static final String[] SAFE_LOGS = {
+        "org.hibernate",
+        "org.springframework.boot.autoconfigure",
+        "org.springframework.boot.diagnostics",
+    };
+
+    @Param({ "clean", "dirty" })
+    private String message;
+
+    private String in;
+
+    private ILoggingEvent event;
+
+    private CRLFLogConverter converter;
+
+    @Setup
+    public void setup() {
+        in = "clean".equals(message)
+            ? "REST request to get a page of Sliders by criteria: SliderCriteria{title=StringFilter [contains=reactive]}"
+            : "Authentication attempt for login admin\n2026-01-01 INFO Authenticated user admin\r\n";
+        LoggingEvent loggingEvent = new LoggingEvent();
+        loggingEvent.setLoggerName("api.web.rest.SliderResource");
+        loggingEvent.setLevel(Level.INFO);
+        loggingEvent.setLoggerContext(new LoggerContext());
+        event = loggingEvent;
+        converter = new CRLFLogConverter();
+        converter.start();
+    }
+
+    @Benchmark
+    public String regex() {
+        // CRLFLogConverter#transform before the single pass scan
+        for (String safeLogger : SAFE_LOGS) {
+            if (event.getLoggerName().startsWith(safeLogger)) {
+                return in;
+            }
+        }
+        return in.replaceAll("[\n\r\t]", "_");
+    }
+
+    @Benchmark
+    public String singlePass() {
+        return converter.transform(event, in);
+    }
+}
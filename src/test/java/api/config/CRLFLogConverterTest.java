@@ -0,0 +1,64 @@
+package api.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.ansi.AnsiColor;
+
+/**
+ * Test class for the {@link CRLFLogConverter}.
+ */
+class CRLFLogConverterTest {
+
+    private CRLFLogConverter converter;
+
+    @BeforeEach
+    public void setup() {
+        converter = new CRLFLogConverter();
+        converter.start();
+    }
+
+    @Test
+    void returnsACleanMessageAsIs() {
+        String message = "Request to get Slider : 1";
+
+        assertThat(converter.transform(event("api.service.SliderService"), message)).isSameAs(message);
+    }
+
+    @Test
+    void replacesEachCrlfCharacter() {
+        assertThat(converter.transform(event("api.service.SliderService"), "\nforged\r\nentry\t")).isEqualTo("_forged__entry_");
+    }
+
+    @Test
+    void colorsTheReplacement() {
+        converter.setOptionList(List.of("red"));
+        converter.start();
+
+        String replacement = converter.toAnsiString("_", AnsiColor.RED);
+
+        assertThat(converter.transform(event("api.service.SliderService"), "a\nb")).isEqualTo("a" + replacement + "b");
+    }
+
+    @Test
+    void keepsTheMessagesOfTheSafeLoggersAndMarkers() {
+        LoggingEvent markedEvent = event("api.service.SliderService");
+        markedEvent.addMarker(CRLFLogConverter.CRLF_SAFE_MARKER);
+
+        assertThat(converter.transform(event("org.springframework.boot.autoconfigure.logging"), "a\nb")).isEqualTo("a\nb");
+        assertThat(converter.transform(markedEvent, "a\nb")).isEqualTo("a\nb");
+    }
+
+    private static LoggingEvent event(String loggerName) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setLevel(Level.INFO);
+        event.setLoggerContext(new LoggerContext());
+        return event;
+    }
+}
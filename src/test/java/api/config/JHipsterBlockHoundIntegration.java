@@ -8,7 +8,7 @@ public class JHipsterBlockHoundIntegration implements BlockHoundIntegration {
     @Override
     public void applyTo(BlockHound.Builder builder) {
         builder.allowBlockingCallsInside("org.springframework.validation.beanvalidation.SpringValidatorAdapter", "validate");
-        builder.allowBlockingCallsInside("api.service.MailService", "sendEmailFromTemplate");
+        builder.allowBlockingCallsInside("api.service.MailTemplateRenderer", "renderNow");
         builder.allowBlockingCallsInside("api.security.DomainUserDetailsService", "createSpringSecurityUser");
         builder.allowBlockingCallsInside("org.springframework.web.reactive.result.method.InvocableHandlerMethod", "invoke");
         builder.allowBlockingCallsInside("org.springdoc.core.service.OpenAPIService", "build");
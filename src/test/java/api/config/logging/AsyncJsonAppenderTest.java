@@ -0,0 +1,163 @@
+package api.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import api.config.ApplicationProperties;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test class for the {@link AsyncJsonAppender}.
+ */
+class AsyncJsonAppenderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoggerContext context = new LoggerContext();
+
+    private ApplicationProperties.Logging.Async properties;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        properties = new ApplicationProperties.Logging.Async();
+    }
+
+    @Test
+    void writesJsonLinesToAFile() throws Exception {
+        Path file = tempDir.resolve("logs/apister.json");
+        AsyncJsonAppender appender = start(LogSink.file(file));
+
+        appender.doAppend(event(Level.INFO, "Request to get Slider : {}", 1));
+        appender.doAppend(event(Level.ERROR, "Forged\nentry", null));
+        appender.stop();
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            lines.add(MAPPER.readTree(line));
+        }
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("message").asText()).isEqualTo("Request to get Slider : 1");
+        assertThat(lines.get(0).get("level").asText()).isEqualTo("INFO");
+        assertThat(lines.get(0).get("logger_name").asText()).isEqualTo("api.service.SliderService");
+        assertThat(lines.get(0).get("app_name").asText()).isEqualTo("apister");
+        assertThat(lines.get(1).get("message").asText()).isEqualTo("Forged\nentry");
+    }
+
+    @Test
+    void sendsJsonLinesToATcpSocket() throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(10000);
+            AsyncJsonAppender appender = start(LogSink.tcp(server.getInetAddress().getHostAddress(), server.getLocalPort()));
+
+            appender.doAppend(event(Level.WARN, "Slow query", null));
+            try (
+                Socket socket = server.accept();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))
+            ) {
+                assertThat(MAPPER.readTree(reader.readLine()).get("message").asText()).isEqualTo("Slow query");
+            } finally {
+                appender.stop();
+            }
+        }
+    }
+
+    @Test
+    void dropsTheLowLevelEventsFirstWhenTheQueueFillsUp() throws Exception {
+        properties.setQueueSize(8);
+        properties.setDiscardingThreshold(4);
+        properties.setBatchSize(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncJsonAppender appender = start(batch -> {
+            writing.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        appender.bindTo(meterRegistry);
+
+        // The writer thread is blocked in the sink with the first event
+        appender.doAppend(event(Level.INFO, "first", null));
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.INFO, "info", null));
+        }
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(Level.ERROR, "error", null));
+        }
+        release.countDown();
+        appender.stop();
+
+        assertThat(appender.getDroppedCount(AsyncJsonAppender.DropReason.QUEUE_FULL, Level.INFO)).isEqualTo(6);
+        assertThat(appender.getDroppedCount(AsyncJsonAppender.DropReason.QUEUE_FULL, Level.ERROR)).isEqualTo(6);
+        assertThat(
+            meterRegistry
+                .get(AsyncJsonAppender.DROPPED_METER_NAME)
+                .tag(AsyncJsonAppender.DROPPED_METER_LEVEL_DIMENSION, "INFO")
+                .tag(AsyncJsonAppender.DROPPED_METER_REASON_DIMENSION, "queue-full")
+                .functionCounter()
+                .count()
+        ).isEqualTo(6);
+    }
+
+    @Test
+    void countsTheEventsLostByTheSink() {
+        AsyncJsonAppender appender = start(batch -> {
+            throw new IOException("Connection refused");
+        });
+
+        appender.doAppend(event(Level.WARN, "lost", null));
+        appender.stop();
+
+        assertThat(appender.getDroppedCount(AsyncJsonAppender.DropReason.SINK_ERROR, Level.WARN)).isEqualTo(1);
+    }
+
+    private AsyncJsonAppender start(LogSink sink) {
+        AsyncJsonAppender appender = new AsyncJsonAppender(properties, sink, Map.of("app_name", "apister"));
+        appender.setContext(context);
+        appender.start();
+        return appender;
+    }
+
+    private LoggingEvent event(Level level, String message, Object argument) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerContext(context);
+        event.setLoggerName("api.service.SliderService");
+        event.setLevel(level);
+        event.setMessage(message);
+        event.setArgumentArray(argument != null ? new Object[] { argument } : null);
+        event.setThreadName(Thread.currentThread().getName());
+        event.setTimeStamp(System.currentTimeMillis());
+        return event;
+    }
+}
@@ -0,0 +1,79 @@
+package api.config.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LogEventRingBuffer}.
+ */
+class LogEventRingBufferTest {
+
+    @Test
+    void roundsTheCapacityUpToAPowerOfTwo() {
+        assertThat(new LogEventRingBuffer<>(8192).capacity()).isEqualTo(8192);
+        assertThat(new LogEventRingBuffer<>(1000).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void keepsTheReservedSlotsFree() {
+        LogEventRingBuffer<Integer> buffer = new LogEventRingBuffer<>(4);
+
+        assertThat(buffer.offer(1, 2)).isTrue();
+        assertThat(buffer.offer(2, 2)).isTrue();
+        assertThat(buffer.offer(3, 2)).isFalse();
+        assertThat(buffer.offer(3, 0)).isTrue();
+        assertThat(buffer.offer(4, 0)).isTrue();
+        assertThat(buffer.offer(5, 0)).isFalse();
+
+        List<Integer> batch = new ArrayList<>();
+        assertThat(buffer.drainTo(batch, 3)).isEqualTo(3);
+        assertThat(batch).containsExactly(1, 2, 3);
+        assertThat(buffer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void drainsTheEventsOfConcurrentProducersInOrderPerProducer() throws Exception {
+        int producers = 4;
+        int eventsPerProducer = 10_000;
+        LogEventRingBuffer<int[]> buffer = new LogEventRingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            IntStream.range(0, producers).forEach(producer ->
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        while (!buffer.offer(new int[] { producer, i }, 0)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                })
+            );
+            start.countDown();
+
+            int[] next = new int[producers];
+            List<int[]> batch = new ArrayList<>();
+            int drained = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (drained < producers * eventsPerProducer && System.nanoTime() < deadline) {
+                drained += buffer.drainTo(batch, 16);
+                for (int[] event : batch) {
+                    assertThat(event[1]).isEqualTo(next[event[0]]++);
+                }
+                batch.clear();
+            }
+            assertThat(drained).isEqualTo(producers * eventsPerProducer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package api.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import api.config.ApplicationProperties;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SpanRingBuffer}.
+ */
+class SpanRingBufferTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+    }
+
+    @Test
+    void breaksATraceDownBySpan() {
+        SpanRingBuffer spanRingBuffer = new SpanRingBuffer(applicationProperties);
+
+        spanRingBuffer.report(span("t1", "3", "2", "SELECT slider", 20, 60));
+        spanRingBuffer.report(span("t1", "2", "1", "SliderService#findByCriteria", 10, 80));
+        spanRingBuffer.report(span("t1", "1", "0000000000000000", "http get /api/sliders", 0, 100));
+
+        assertThat(spanRingBuffer.getTraces(Duration.ZERO, 10)).singleElement().satisfies(trace -> {
+            assertThat(trace.traceId()).isEqualTo("t1");
+            assertThat(trace.name()).isEqualTo("http get /api/sliders");
+            assertThat(trace.duration()).isEqualTo(Duration.ofMillis(100));
+            assertThat(trace.spans())
+                .extracting(SpanRingBuffer.Span::name)
+                .containsExactly("http get /api/sliders", "SliderService#findByCriteria", "SELECT slider");
+            assertThat(trace.spans().get(0).parentId()).isNull();
+            assertThat(trace.spans().get(2).parentId()).isEqualTo("2");
+            assertThat(trace.spans().get(2).offset()).isEqualTo(Duration.ofMillis(20));
+            assertThat(trace.spans().get(2).duration()).isEqualTo(Duration.ofMillis(40));
+            assertThat(trace.spans().get(2).tags()).containsEntry("kind", "test");
+        });
+    }
+
+    @Test
+    void returnsTheSlowTracesMostRecentFirst() {
+        SpanRingBuffer spanRingBuffer = new SpanRingBuffer(applicationProperties);
+
+        spanRingBuffer.report(span("t1", "1", null, "slow", 0, 300));
+        spanRingBuffer.report(span("t2", "2", null, "fast", 100, 110));
+        spanRingBuffer.report(span("t3", "3", null, "slower", 200, 600));
+
+        assertThat(spanRingBuffer.getTraces(Duration.ofMillis(200), 10))
+            .extracting(SpanRingBuffer.Trace::name)
+            .containsExactly("slower", "slow");
+        assertThat(spanRingBuffer.getTraces(Duration.ZERO, 1)).extracting(SpanRingBuffer.Trace::name).containsExactly("slower");
+    }
+
+    @Test
+    void overwritesTheOldestSpans() {
+        applicationProperties.getTracing().setBufferSize(2);
+        SpanRingBuffer spanRingBuffer = new SpanRingBuffer(applicationProperties);
+
+        for (int i = 1; i <= 3; i++) {
+            spanRingBuffer.report(span("t" + i, String.valueOf(i), null, "request " + i, i, i + 1));
+        }
+
+        assertThat(spanRingBuffer.getTraces(Duration.ZERO, 10))
+            .extracting(SpanRingBuffer.Trace::name)
+            .containsExactly("request 3", "request 2");
+    }
+
+    private static FinishedSpan span(String traceId, String spanId, String parentId, String name, long startMillis, long endMillis) {
+        FinishedSpan span = mock(FinishedSpan.class);
+        when(span.getTraceId()).thenReturn(traceId);
+        when(span.getSpanId()).thenReturn(spanId);
+        when(span.getParentId()).thenReturn(parentId);
+        when(span.getName()).thenReturn(name);
+        when(span.getKind()).thenReturn(Span.Kind.SERVER);
+        when(span.getStartTimestamp()).thenReturn(NOW.plusMillis(startMillis));
+        when(span.getEndTimestamp()).thenReturn(NOW.plusMillis(endMillis));
+        when(span.getTags()).thenReturn(Map.of("kind", "test"));
+        return span;
+    }
+}
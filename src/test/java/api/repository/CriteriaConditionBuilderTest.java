@@ -0,0 +1,91 @@
+package api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import tech.jhipster.service.ColumnConverterReactive;
+import tech.jhipster.service.filter.BooleanFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+class CriteriaConditionBuilderTest {
+
+    private static final Table table = Table.aliased("slider", "e");
+
+    private CriteriaConditionBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        builder = new CriteriaConditionBuilder(new IdentityColumnConverter());
+    }
+
+    @Test
+    void noFilterBuildsNoCondition() {
+        builder.buildFilterConditionForField(new LongFilter(), table.column("id"));
+
+        assertThat(builder.buildConditions()).isNull();
+        assertThat(builder.getBindings()).isEmpty();
+    }
+
+    @Test
+    void filterValuesAreBoundInOrder() {
+        LongFilter id = new LongFilter();
+        id.setGreaterThan(1L);
+        id.setIn(List.of(2L, 3L));
+        StringFilter presentation = new StringFilter();
+        presentation.setContains("it's");
+        presentation.setSpecified(true);
+        builder.buildFilterConditionForField(id, table.column("id"));
+        builder.buildFilterConditionForField(presentation, table.column("presentation"));
+
+        assertThat(render()).isEqualTo(
+            "SELECT e.id FROM slider e WHERE e.id > :criteria1 AND e.id = ANY(:criteria2) " +
+            "AND e.presentation LIKE :criteria3 AND e.presentation IS NOT NULL"
+        );
+        assertThat(builder.getBindings()).containsOnlyKeys("criteria1", "criteria2", "criteria3");
+        assertThat(builder.getBindings().get("criteria1")).isEqualTo(1L);
+        assertThat(builder.getBindings().get("criteria2")).isEqualTo(new Long[] { 2L, 3L });
+        assertThat(builder.getBindings().get("criteria3")).isEqualTo("it's");
+    }
+
+    @Test
+    void sameShapeRendersSameStatement() {
+        LongFilter id = new LongFilter();
+        id.setNotIn(List.of(1L, 2L, 3L));
+        builder.buildFilterConditionForField(id, table.column("id"));
+        String first = render();
+
+        builder = new CriteriaConditionBuilder(new IdentityColumnConverter());
+        id.setNotIn(List.of(4L));
+        builder.buildFilterConditionForField(id, table.column("id"));
+
+        assertThat(render()).isEqualTo(first).endsWith("e.id != ALL(:criteria1)");
+    }
+
+    @Test
+    void booleanValuesAreConverted() {
+        BooleanFilter activated = new BooleanFilter();
+        activated.setEquals(true);
+        builder.buildFilterConditionForField(activated, table.column("activated"));
+
+        assertThat(builder.getBindings()).containsEntry("criteria1", Boolean.TRUE);
+    }
+
+    private String render() {
+        return SqlRenderer.toString(Select.builder().select(table.column("id")).from(table).where(builder.buildConditions()).build());
+    }
+
+    private static class IdentityColumnConverter implements ColumnConverterReactive {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T convert(Object value, Class<T> target) {
+            return (T) value;
+        }
+    }
+}
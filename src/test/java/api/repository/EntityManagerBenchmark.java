@@ -0,0 +1,128 @@
+package api.repository;
+
+import api.config.ApplicationProperties;
+import api.domain.Slider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.query.UpdateMapper;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Compares rendering the slider select for every request, as done before the SQL cache, with looking it up by shape in
+ * {@link EntityManager}. Run with {@code ./gradlew jmh -Pjmh=EntityManagerBenchmark}: the GC profiler reports the
+ * allocation per request in {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityManagerBenchmark {
+
+    private static final Table entityTable = Table.aliased("slider", EntityManager.ENTITY_ALIAS);
+    private static final Table userTable = Table.aliased("jhi_user", "e_user");
+
+    private EntityManager entityManager;
+
+    private Pageable pageable;
+
+    private long id;
+
+    @Setup
+    public void setup() {
+        DatabaseClient databaseClient = DatabaseClient.builder()
+            .connectionFactory(new UnusedConnectionFactory())
+            .bindMarkers(PostgresDialect.INSTANCE.getBindMarkersFactory())
+            .build();
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(databaseClient, PostgresDialect.INSTANCE);
+        SqlRenderer sqlRenderer = SqlRenderer.create(new RenderContextFactory(PostgresDialect.INSTANCE).createRenderContext());
+        UpdateMapper updateMapper = new UpdateMapper(PostgresDialect.INSTANCE, (R2dbcConverter) template.getConverter());
+        QueryMetrics queryMetrics = new QueryMetrics(new ApplicationProperties(), new SimpleMeterRegistry());
+        entityManager = new EntityManager(sqlRenderer, updateMapper, template, queryMetrics);
+        pageable = PageRequest.of(3, 20);
+    }
+
+    @Benchmark
+    public String findByIdRenderedPerRequest() {
+        Expression idValue = Conditions.just(Long.toString(++id));
+        return entityManager.createSelect(createSelectFrom(), Slider.class, null, Conditions.isEqual(entityTable.column("id"), idValue));
+    }
+
+    @Benchmark
+    public String findByIdCachedPerShape() {
+        return entityManager.createSelect(
+            "Slider.select",
+            EntityManagerBenchmark::createSelectFrom,
+            Slider.class,
+            null,
+            Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"))
+        );
+    }
+
+    @Benchmark
+    public String findAllRenderedPerRequest() {
+        return entityManager.createSelect(createSelectFrom(), Slider.class, pageable, null);
+    }
+
+    @Benchmark
+    public String findAllCachedPerShape() {
+        return entityManager.createSelect("Slider.select", EntityManagerBenchmark::createSelectFrom, Slider.class, pageable, null);
+    }
+
+    private static SelectFromAndJoinCondition createSelectFrom() {
+        List<Expression> columns = SliderSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        columns.addAll(UserSqlHelper.getColumns(userTable, "user"));
+        return Select.builder()
+            .select(columns)
+            .from(entityTable)
+            .leftOuterJoin(userTable)
+            .on(Column.create("user_id", entityTable))
+            .equals(Column.create("id", userTable));
+    }
+
+    /**
+     * The benchmark only renders statements, it never connects.
+     */
+    private static class UnusedConnectionFactory implements ConnectionFactory {
+
+        @Override
+        public Publisher<? extends Connection> create() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return () -> "PostgreSQL";
+        }
+    }
+}
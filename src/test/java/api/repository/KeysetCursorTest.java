@@ -0,0 +1,25 @@
+package api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodedCursorIsDecodedBack() {
+        KeysetCursor cursor = KeysetCursor.of("presentation", "line one\nline two", 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void invalidTokenIsRejected() {
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("not a token"));
+        assertThatIllegalArgumentException().isThrownBy(() -> KeysetCursor.decode("aWQ"));
+    }
+}
@@ -0,0 +1,87 @@
+package api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import api.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link QueryMetrics}.
+ */
+class QueryMetricsTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void timesTheRowsOfAQuery() {
+        QueryMetrics queryMetrics = new QueryMetrics(applicationProperties, meterRegistry);
+
+        Flux<String> rows = queryMetrics.timed("Slider.select", "SELECT * FROM slider", Flux.just("a", "b", "c"));
+
+        assertThat(meterRegistry.get(QueryMetrics.QUERY_METER_NAME).tag("outcome", "success").timer().count()).isZero();
+        assertThat(rows.collectList().block()).containsExactly("a", "b", "c");
+        assertThat(
+            meterRegistry
+                .get(QueryMetrics.QUERY_METER_NAME)
+                .tag(QueryMetrics.QUERY_METER_QUERY_DIMENSION, "Slider.select")
+                .tag(QueryMetrics.QUERY_METER_OUTCOME_DIMENSION, "success")
+                .timer()
+                .count()
+        ).isEqualTo(1);
+        assertThat(meterRegistry.get(QueryMetrics.ROWS_METER_NAME).tag("query", "Slider.select").summary().totalAmount()).isEqualTo(3);
+        assertThat(queryMetrics.getSlowQueries()).isEmpty();
+    }
+
+    @Test
+    void countsTheUpdatedRows() {
+        QueryMetrics queryMetrics = new QueryMetrics(applicationProperties, meterRegistry);
+
+        queryMetrics.timedUpdate("slider.deleteAll", "DELETE FROM slider", Mono.just(42L)).block();
+
+        assertThat(meterRegistry.get(QueryMetrics.ROWS_METER_NAME).tag("query", "slider.deleteAll").summary().totalAmount()).isEqualTo(42);
+    }
+
+    @Test
+    void timesTheFailedQueries() {
+        QueryMetrics queryMetrics = new QueryMetrics(applicationProperties, meterRegistry);
+
+        queryMetrics.timed("User.select", "SELECT * FROM jhi_user", Mono.error(new IllegalStateException())).onErrorComplete().block();
+
+        assertThat(meterRegistry.get(QueryMetrics.QUERY_METER_NAME).tag("outcome", "error").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheMostRecentSlowQueries() {
+        applicationProperties.getRepository().setSlowQueryThreshold(Duration.ZERO);
+        applicationProperties.getRepository().setSlowQueryLogSize(2);
+        QueryMetrics queryMetrics = new QueryMetrics(applicationProperties, meterRegistry);
+
+        for (int i = 1; i <= 3; i++) {
+            queryMetrics.timed("Slider.select", "SELECT " + i, Flux.just(i)).blockLast();
+        }
+
+        assertThat(queryMetrics.getSlowQueries())
+            .extracting(QueryMetrics.SlowQuery::sql)
+            .containsExactly("SELECT 3", "SELECT 2");
+        assertThat(queryMetrics.getSlowQueries()).allSatisfy(slowQuery -> {
+            assertThat(slowQuery.query()).isEqualTo("Slider.select");
+            assertThat(slowQuery.rows()).isEqualTo(1);
+            assertThat(slowQuery.outcome()).isEqualTo("success");
+        });
+        assertThat(meterRegistry.get(QueryMetrics.SLOW_METER_NAME).counter().count()).isEqualTo(3);
+    }
+}
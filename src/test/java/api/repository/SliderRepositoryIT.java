@@ -0,0 +1,195 @@
+package api.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import api.IntegrationTest;
+import api.config.Constants;
+import api.domain.Slider;
+import api.domain.User;
+import api.domain.criteria.SliderCriteria;
+import api.repository.rowmapper.SliderRowMapper;
+import java.util.List;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+/**
+ * Integration tests for the {@link SliderRepository} custom queries.
+ */
+@IntegrationTest
+class SliderRepositoryIT {
+
+    private static final String DEFAULT_PRESENTATION = "AAAAAAAAAA";
+    private static final String OTHER_PRESENTATION = "BBBBBBBBBB";
+
+    @Autowired
+    private SliderRepository sliderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @MockitoSpyBean
+    private SliderRowMapper sliderRowMapper;
+
+    private User user;
+
+    private User otherUser;
+
+    @BeforeEach
+    public void initTest() {
+        user = em.insert(createUser()).block();
+        otherUser = em.insert(createUser()).block();
+        sliderRepository.save(new Slider().presentation(DEFAULT_PRESENTATION).user(user)).block();
+        sliderRepository.save(new Slider().presentation(DEFAULT_PRESENTATION).user(user)).block();
+        sliderRepository.save(new Slider().presentation(OTHER_PRESENTATION).user(otherUser)).block();
+    }
+
+    private static User createUser() {
+        User user = new User();
+        user.setLogin("slider_" + RandomStringUtils.insecure().nextAlphabetic(5).toLowerCase());
+        user.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+        user.setActivated(true);
+        user.setEmail(RandomStringUtils.insecure().nextAlphabetic(5) + "slider@localhost");
+        user.setLangKey("en");
+        user.setCreatedBy(Constants.SYSTEM);
+        return user;
+    }
+
+    @AfterEach
+    public void cleanup() {
+        em.deleteAll(Slider.class).block();
+        userRepository.deleteAllUserAuthorities().block();
+        userRepository.deleteAll().block();
+    }
+
+    @Test
+    void countByCriteriaWithoutFilterMatchesFindByCriteria() {
+        assertSameCountWithoutMappingRows(new SliderCriteria());
+        assertSameCountWithoutMappingRows(null);
+    }
+
+    @Test
+    void countByCriteriaWithEntityFilterMatchesFindByCriteria() {
+        SliderCriteria criteria = new SliderCriteria();
+        criteria.presentation().setEquals(DEFAULT_PRESENTATION);
+        assertSameCountWithoutMappingRows(criteria);
+
+        criteria = new SliderCriteria();
+        criteria.presentation().setContains("C");
+        assertSameCountWithoutMappingRows(criteria);
+    }
+
+    @Test
+    void countByCriteriaWithUserFilterMatchesFindByCriteria() {
+        SliderCriteria criteria = new SliderCriteria();
+        criteria.userId().setEquals(user.getId());
+        assertSameCountWithoutMappingRows(criteria);
+
+        criteria = new SliderCriteria();
+        criteria.userId().setEquals(otherUser.getId());
+        criteria.presentation().setEquals(DEFAULT_PRESENTATION);
+        assertSameCountWithoutMappingRows(criteria);
+    }
+
+    @Test
+    void findByCriteriaBindsPagingValues() {
+        List<Slider> all = sliderRepository.findByCriteria(null, PageRequest.of(0, 3, Sort.by("id"))).collectList().block();
+        List<Slider> firstPage = sliderRepository.findByCriteria(null, PageRequest.of(0, 2, Sort.by("id"))).collectList().block();
+        List<Slider> secondPage = sliderRepository.findByCriteria(null, PageRequest.of(1, 2, Sort.by("id"))).collectList().block();
+
+        assertThat(firstPage).extracting(Slider::getId).containsExactly(all.get(0).getId(), all.get(1).getId());
+        assertThat(secondPage).extracting(Slider::getId).containsExactly(all.get(2).getId());
+    }
+
+    @Test
+    void findByIdBindsId() {
+        Slider slider = sliderRepository.findAll().blockFirst();
+
+        assertThat(sliderRepository.findById(slider.getId()).block()).isEqualTo(slider);
+        assertThat(sliderRepository.findById(Long.MAX_VALUE).block()).isNull();
+    }
+
+    @Test
+    void updateReturnsUpdatedSliderWithUser() {
+        Slider slider = sliderRepository.findAll().blockFirst();
+        Slider updated = new Slider().presentation(OTHER_PRESENTATION).user(otherUser);
+        updated.setId(slider.getId());
+
+        Slider result = sliderRepository.update(updated).block();
+
+        assertThat(result.getPresentation()).isEqualTo(OTHER_PRESENTATION);
+        assertThat(result.getUserId()).isEqualTo(otherUser.getId());
+        assertThat(result.getUser().getLogin()).isEqualTo(otherUser.getLogin());
+        assertThat(sliderRepository.findById(slider.getId()).block()).isEqualTo(result);
+    }
+
+    @Test
+    void updateNonNullColumnsKeepsAbsentColumns() {
+        Slider slider = sliderRepository.findAll().blockFirst();
+        Slider patch = new Slider().presentation(OTHER_PRESENTATION);
+        patch.setId(slider.getId());
+
+        Slider result = sliderRepository.updateNonNullColumns(patch).block();
+
+        assertThat(result.getPresentation()).isEqualTo(OTHER_PRESENTATION);
+        assertThat(result.getUserId()).isEqualTo(slider.getUserId());
+        assertThat(result.getUser().getLogin()).isEqualTo(slider.getUser().getLogin());
+    }
+
+    @Test
+    void updateWithVersionIncrementsVersion() {
+        Slider slider = sliderRepository.findAll().blockFirst();
+        Slider patch = new Slider().presentation(OTHER_PRESENTATION).version(slider.getVersion());
+        patch.setId(slider.getId());
+
+        Slider result = sliderRepository.updateNonNullColumns(patch).block();
+
+        assertThat(result.getVersion()).isEqualTo(slider.getVersion() + 1);
+    }
+
+    @Test
+    void updateWithStaleVersionFails() {
+        Slider slider = sliderRepository.findAll().blockFirst();
+        Slider patch = new Slider().presentation(OTHER_PRESENTATION).version(slider.getVersion() + 1);
+        patch.setId(slider.getId());
+
+        assertThatThrownBy(() -> sliderRepository.updateNonNullColumns(patch).block()).isInstanceOf(
+            OptimisticLockingFailureException.class
+        );
+        assertThat(sliderRepository.findById(slider.getId()).block().getPresentation()).isEqualTo(slider.getPresentation());
+    }
+
+    @Test
+    void updateNonExistingSliderIsEmpty() {
+        Slider slider = new Slider().presentation(OTHER_PRESENTATION).user(user);
+        slider.setId(Long.MAX_VALUE);
+
+        assertThat(sliderRepository.update(slider).block()).isNull();
+        assertThat(sliderRepository.updateNonNullColumns(slider).block()).isNull();
+    }
+
+    private void assertSameCountWithoutMappingRows(SliderCriteria criteria) {
+        Long expected = sliderRepository.findByCriteria(criteria, null).count().block();
+
+        clearInvocations(sliderRowMapper);
+        Long actual = sliderRepository.countByCriteria(criteria).block();
+
+        assertThat(actual).isEqualTo(expected);
+        verify(sliderRowMapper, never()).apply(any(), anyString());
+    }
+}
@@ -0,0 +1,101 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link CachingReactiveJwtDecoder}.
+ */
+class CachingReactiveJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private ReactiveJwtDecoder delegate;
+
+    private MeterRegistry meterRegistry;
+
+    private CachingReactiveJwtDecoder jwtDecoder;
+
+    @BeforeEach
+    public void setup() {
+        delegate = mock(ReactiveJwtDecoder.class);
+        meterRegistry = new SimpleMeterRegistry();
+        jwtDecoder = new CachingReactiveJwtDecoder(delegate, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void decodesRepeatedTokensOnce() {
+        Jwt jwt = jwt(Instant.now().plusSeconds(60));
+        when(delegate.decode(TOKEN)).thenReturn(Mono.just(jwt));
+
+        assertThat(jwtDecoder.decode(TOKEN).block()).isSameAs(jwt);
+        assertThat(jwtDecoder.decode(TOKEN).block()).isSameAs(jwt);
+
+        verify(delegate).decode(TOKEN);
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void doesNotCacheExpiredTokens() {
+        when(delegate.decode(TOKEN)).thenReturn(Mono.just(jwt(Instant.now().minusSeconds(1))));
+
+        jwtDecoder.decode(TOKEN).block();
+        jwtDecoder.decode(TOKEN).block();
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void doesNotCacheTokensWithoutExpiration() {
+        when(delegate.decode(TOKEN)).thenReturn(Mono.just(jwt(null)));
+
+        jwtDecoder.decode(TOKEN).block();
+        jwtDecoder.decode(TOKEN).block();
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void doesNotCacheInvalidTokens() {
+        when(delegate.decode(TOKEN)).thenReturn(Mono.error(new BadJwtException("Invalid token")));
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(TOKEN).block());
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(TOKEN).block());
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue(TOKEN)
+            .header("alg", "HS512")
+            .subject("user")
+            .issuedAt(expiresAt == null ? Instant.now() : expiresAt.minusSeconds(60))
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry
+            .get("cache.gets")
+            .tag("cache", CachingReactiveJwtDecoder.CACHE_NAME)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+}
@@ -0,0 +1,89 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.config.ApplicationProperties;
+import api.config.SecurityConfiguration;
+import api.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the password hash upgrade of {@link DomainUserDetailsPasswordService}.
+ */
+class DomainUserDetailsPasswordServiceTest {
+
+    private static final String LOGIN = "upgraded-user";
+
+    private UserRepository userRepository;
+
+    private DomainUserDetailsService userDetailsService;
+
+    private DomainUserDetailsPasswordService userDetailsPasswordService;
+
+    private UserDetails user;
+
+    @BeforeEach
+    public void setup() {
+        userRepository = mock(UserRepository.class);
+        userDetailsService = mock(DomainUserDetailsService.class);
+        when(userDetailsService.evictUser(1L)).thenReturn(Mono.empty());
+        userDetailsPasswordService = new DomainUserDetailsPasswordService(userRepository, userDetailsService);
+        user = new User(LOGIN, "old hash", List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+    }
+
+    @Test
+    void storesTheUpgradedHash() {
+        when(userRepository.updatePassword(LOGIN, "old hash", "new hash")).thenReturn(Mono.just(1L));
+
+        UserDetails upgraded = userDetailsPasswordService.updatePassword(user, "new hash").block();
+
+        assertThat(upgraded.getPassword()).isEqualTo("new hash");
+        assertThat(upgraded.getAuthorities()).isEqualTo(user.getAuthorities());
+        verify(userDetailsService).evictUser(1L);
+    }
+
+    @Test
+    void keepsAPasswordChangedDuringTheLogin() {
+        when(userRepository.updatePassword(LOGIN, "old hash", "new hash")).thenReturn(Mono.empty());
+
+        assertThat(userDetailsPasswordService.updatePassword(user, "new hash").block().getPassword()).isEqualTo("old hash");
+        verify(userDetailsService, never()).evictUser(1L);
+    }
+
+    @Test
+    void upgradesOutdatedHashes() {
+        PasswordEncoder passwordEncoder = passwordEncoder("bcrypt", 5);
+        String legacyHash = new BCryptPasswordEncoder(5).encode("password");
+        String weakHash = passwordEncoder("bcrypt", 4).encode("password");
+        String pbkdf2Hash = passwordEncoder("pbkdf2", 5).encode("password");
+        String currentHash = passwordEncoder.encode("password");
+
+        assertThat(currentHash).startsWith("{bcrypt}$2a$05$");
+        assertThat(pbkdf2Hash).startsWith("{pbkdf2}");
+        assertThat(List.of(legacyHash, weakHash, pbkdf2Hash, currentHash)).allMatch(hash -> passwordEncoder.matches("password", hash));
+        assertThat(passwordEncoder.upgradeEncoding(legacyHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(pbkdf2Hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(currentHash)).isFalse();
+    }
+
+    private static PasswordEncoder passwordEncoder(String encodingId, int bcryptStrength) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getPasswordEncoder().setEncodingId(encodingId);
+        applicationProperties.getSecurity().getPasswordEncoder().setBcryptStrength(bcryptStrength);
+        return new SecurityConfiguration(new JHipsterProperties(), applicationProperties).passwordEncoder();
+    }
+}
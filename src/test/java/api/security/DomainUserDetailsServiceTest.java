@@ -0,0 +1,116 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.config.ApplicationProperties;
+import api.domain.User;
+import api.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the cache of {@link DomainUserDetailsService}.
+ */
+class DomainUserDetailsServiceTest {
+
+    private static final String LOGIN = "cached-user";
+    private static final String EMAIL = "cached-user@localhost";
+
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private DomainUserDetailsService userDetailsService;
+
+    private User user;
+
+    @BeforeEach
+    public void setup() {
+        user = new User();
+        user.setId(1L);
+        user.setLogin(LOGIN);
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user.setActivated(true);
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findOneWithAuthoritiesByLogin(LOGIN)).thenReturn(Mono.fromSupplier(() -> user));
+        when(userRepository.findOneWithAuthoritiesByEmailIgnoreCase(EMAIL)).thenReturn(Mono.fromSupplier(() -> user));
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new DomainUserDetailsService(userRepository, new ApplicationProperties(), meterRegistry);
+    }
+
+    @Test
+    void cachesUsersByNormalizedLogin() {
+        userDetailsService.findByUsername(LOGIN).block();
+        UserDetails userDetails = userDetailsService.findByUsername(LOGIN.toUpperCase()).block();
+
+        assertThat(userDetails.getUsername()).isEqualTo(LOGIN);
+        verify(userRepository).findOneWithAuthoritiesByLogin(LOGIN);
+        assertThat(cacheGets("hit")).isEqualTo(1);
+        assertThat(cacheGets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void cachesUsersByEmail() {
+        userDetailsService.findByUsername(EMAIL).block();
+        userDetailsService.findByUsername(EMAIL).block();
+
+        verify(userRepository).findOneWithAuthoritiesByEmailIgnoreCase(EMAIL);
+    }
+
+    @Test
+    void returnsACopyOfTheCachedUser() {
+        UserDetails first = userDetailsService.findByUsername(LOGIN).block();
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+
+        assertThat(userDetailsService.findByUsername(LOGIN).block().getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void evictedUsersAreLoadedAgain() {
+        userDetailsService.findByUsername(LOGIN).block();
+        userDetailsService.findByUsername(EMAIL).block();
+        user.setPassword("new hash");
+
+        userDetailsService.evictUser(user.getId()).block();
+
+        assertThat(userDetailsService.findByUsername(LOGIN).block().getPassword()).isEqualTo("new hash");
+        assertThat(userDetailsService.findByUsername(EMAIL).block().getPassword()).isEqualTo("new hash");
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin(LOGIN);
+    }
+
+    @Test
+    void doesNotCacheUsersNotActivated() {
+        user.setActivated(false);
+
+        assertThatExceptionOfType(UserNotActivatedException.class).isThrownBy(() -> userDetailsService.findByUsername(LOGIN).block());
+        user.setActivated(true);
+
+        assertThat(userDetailsService.findByUsername(LOGIN).block()).isNotNull();
+    }
+
+    @Test
+    void doesNotCacheWhenDisabled() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getUserDetailsCache().setMaximumSize(0);
+        userDetailsService = new DomainUserDetailsService(userRepository, applicationProperties, meterRegistry);
+
+        userDetailsService.findByUsername(LOGIN).block();
+        userDetailsService.findByUsername(LOGIN).block();
+
+        verify(userRepository, times(2)).findOneWithAuthoritiesByLogin(LOGIN);
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", DomainUserDetailsService.CACHE_NAME).tag("result", result).functionCounter().count();
+    }
+}
@@ -0,0 +1,112 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import api.config.ApplicationProperties;
+import api.management.SecurityMetersService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link LoginRateLimiter}.
+ */
+class LoginRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private MeterRegistry meterRegistry;
+
+    private LoginRateLimiter loginRateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Security.LoginRateLimit properties = new ApplicationProperties.Security.LoginRateLimit();
+        properties.getAddress().setCapacity(3);
+        properties.getAddress().setRefillInterval(Duration.ofSeconds(10));
+        properties.getLogin().setCapacity(2);
+        properties.getLogin().setRefillInterval(Duration.ofSeconds(30));
+        properties.getLockout().setFailures(3);
+        properties.getLockout().setDuration(Duration.ofMinutes(1));
+        properties.getLockout().setMaximumDuration(Duration.ofMinutes(3));
+        meterRegistry = new SimpleMeterRegistry();
+        loginRateLimiter = new LoginRateLimiter(properties, new SecurityMetersService(meterRegistry), nanoTime::get);
+    }
+
+    @Test
+    void allowsTheCapacityOfTheBucketAtOnce() {
+        assertThat(loginRateLimiter.acquireForAddress("192.0.2.1")).isZero();
+        assertThat(loginRateLimiter.acquireForAddress("192.0.2.1")).isZero();
+        assertThat(loginRateLimiter.acquireForAddress("192.0.2.1")).isZero();
+
+        assertThat(loginRateLimiter.acquireForAddress("192.0.2.1")).isEqualTo(Duration.ofSeconds(10));
+        assertThat(loginRateLimiter.acquireForAddress("192.0.2.2")).isZero();
+        assertThat(throttledCount("address")).isEqualTo(1);
+    }
+
+    @Test
+    void refillsTheBucketOverTime() {
+        loginRateLimiter.acquireForLogin("user");
+        loginRateLimiter.acquireForLogin("user");
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofSeconds(30));
+
+        advance(Duration.ofSeconds(20));
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofSeconds(10));
+
+        advance(Duration.ofSeconds(10));
+        assertThat(loginRateLimiter.acquireForLogin("User")).isZero();
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofSeconds(30));
+        assertThat(throttledCount("login")).isEqualTo(3);
+    }
+
+    @Test
+    void locksOutTheLoginAfterConsecutiveFailures() {
+        loginRateLimiter.loginFailed("user");
+        loginRateLimiter.loginFailed("user");
+        assertThat(loginRateLimiter.acquireForLogin("user")).isZero();
+
+        loginRateLimiter.loginFailed("user");
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofMinutes(1));
+        assertThat(loginRateLimiter.acquireForLogin("another-user")).isZero();
+        assertThat(throttledCount("lockout")).isEqualTo(1);
+
+        advance(Duration.ofMinutes(1));
+        assertThat(loginRateLimiter.acquireForLogin("user")).isZero();
+    }
+
+    @Test
+    void doublesTheLockoutUpToItsMaximum() {
+        for (int i = 0; i < 4; i++) {
+            loginRateLimiter.loginFailed("user");
+        }
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofMinutes(2));
+
+        loginRateLimiter.loginFailed("user");
+        assertThat(loginRateLimiter.acquireForLogin("user")).isEqualTo(Duration.ofMinutes(3));
+    }
+
+    @Test
+    void forgetsTheFailuresOnSuccess() {
+        loginRateLimiter.loginFailed("user");
+        loginRateLimiter.loginFailed("user");
+        loginRateLimiter.loginSucceeded("user");
+        loginRateLimiter.loginFailed("user");
+
+        assertThat(loginRateLimiter.acquireForLogin("user")).isZero();
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+
+    private double throttledCount(String limit) {
+        return meterRegistry
+            .get(SecurityMetersService.THROTTLED_LOGINS_METER_NAME)
+            .tag(SecurityMetersService.THROTTLED_LOGINS_METER_LIMIT_DIMENSION, limit)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,132 @@
+package api.security;
+
+import static api.security.SecurityUtils.JWT_ALGORITHM;
+
+import api.management.SecurityMetersService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compares the cost of an invalid token when its cause is read from the exception messages, as done before, with
+ * {@link MeteredReactiveJwtDecoder}. Run with {@code ./gradlew jmh -Pjmh=MeteredReactiveJwtDecoderBenchmark}: the GC
+ * profiler reports the allocation per token in {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeteredReactiveJwtDecoderBenchmark {
+
+    @Param({ "expired", "invalid-signature", "malformed" })
+    private String cause;
+
+    private String token;
+
+    private ReactiveJwtDecoder messageMatchingDecoder;
+
+    private ReactiveJwtDecoder meteredDecoder;
+
+    @Setup
+    public void setup() {
+        SecretKey secretKey = randomSecretKey();
+        NimbusReactiveJwtDecoder nimbusJwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(JWT_ALGORITHM).build();
+        nimbusJwtDecoder.setJwtValidator(new JwtTimestampValidator());
+        SecurityMetersService metersService = new SecurityMetersService(new SimpleMeterRegistry());
+        messageMatchingDecoder = messageMatchingDecoder(nimbusJwtDecoder, metersService);
+        meteredDecoder = new MeteredReactiveJwtDecoder(nimbusJwtDecoder, metersService);
+        token = switch (cause) {
+            case "expired" -> token(secretKey, Instant.now().minusSeconds(600));
+            case "invalid-signature" -> token(randomSecretKey(), Instant.now().plusSeconds(600));
+            default -> token(secretKey, Instant.now().plusSeconds(600)).substring(1);
+        };
+    }
+
+    @Benchmark
+    public Jwt messageMatching() {
+        return decode(messageMatchingDecoder);
+    }
+
+    @Benchmark
+    public Jwt exceptionTypes() {
+        return decode(meteredDecoder);
+    }
+
+    private Jwt decode(ReactiveJwtDecoder jwtDecoder) {
+        try {
+            return jwtDecoder.decode(token).onErrorResume(e -> Mono.empty()).block();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The decoder of {@code SecurityJwtConfiguration} before {@link MeteredReactiveJwtDecoder}.
+     */
+    private static ReactiveJwtDecoder messageMatchingDecoder(ReactiveJwtDecoder jwtDecoder, SecurityMetersService metersService) {
+        return token -> {
+            try {
+                return jwtDecoder
+                    .decode(token)
+                    .doOnError(e -> {
+                        if (e.getMessage().contains("Jwt expired at")) {
+                            metersService.trackTokenExpired();
+                        } else if (e.getMessage().contains("Failed to validate the token")) {
+                            metersService.trackTokenInvalidSignature();
+                        } else if (
+                            e.getMessage().contains("Invalid JWT serialization:") ||
+                            e.getMessage().contains("Invalid unsecured/JWS/JWE header:")
+                        ) {
+                            metersService.trackTokenMalformed();
+                        }
+                    });
+            } catch (Exception e) {
+                if (e.getMessage().contains("An error occurred while attempting to decode the Jwt")) {
+                    metersService.trackTokenMalformed();
+                } else if (e.getMessage().contains("Failed to validate the token")) {
+                    metersService.trackTokenInvalidSignature();
+                }
+                throw e;
+            }
+        };
+    }
+
+    private static String token(SecretKey key, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(expiresAt.minusSeconds(60)).expiresAt(expiresAt).subject("user").build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(key))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims))
+            .getTokenValue();
+    }
+
+    private static SecretKey randomSecretKey() {
+        byte[] keyBytes = new byte[64];
+        new SecureRandom().nextBytes(keyBytes);
+        return new SecretKeySpec(keyBytes, JWT_ALGORITHM.getName());
+    }
+}
@@ -0,0 +1,124 @@
+package api.security;
+
+import static api.security.SecurityUtils.JWT_ALGORITHM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import api.management.SecurityMetersService;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.SecureRandom;
+import java.time.Instant;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+
+/**
+ * Test class for the classification of the invalid tokens by {@link MeteredReactiveJwtDecoder}.
+ */
+class MeteredReactiveJwtDecoderTest {
+
+    private static final String INVALID_TOKENS_METER_NAME = SecurityMetersService.INVALID_TOKENS_METER_NAME;
+
+    private SecretKey secretKey;
+
+    private MeterRegistry meterRegistry;
+
+    private MeteredReactiveJwtDecoder jwtDecoder;
+
+    @BeforeEach
+    public void setup() {
+        secretKey = randomSecretKey();
+        meterRegistry = new SimpleMeterRegistry();
+        NimbusReactiveJwtDecoder nimbusJwtDecoder = NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(JWT_ALGORITHM).build();
+        nimbusJwtDecoder.setJwtValidator(new JwtTimestampValidator());
+        jwtDecoder = new MeteredReactiveJwtDecoder(nimbusJwtDecoder, new SecurityMetersService(meterRegistry));
+    }
+
+    @Test
+    void doesNotCountValidTokens() {
+        assertThat(jwtDecoder.decode(token(secretKey, JWT_ALGORITHM, Instant.now().plusSeconds(60))).block().getSubject()).isEqualTo("user");
+
+        assertThat(meterRegistry.find(INVALID_TOKENS_METER_NAME).counters()).allMatch(counter -> counter.count() == 0);
+    }
+
+    @Test
+    void countsExpiredTokens() {
+        assertInvalid(token(secretKey, JWT_ALGORITHM, Instant.now().minusSeconds(600)), "expired");
+    }
+
+    @Test
+    void countsTokensWithAnotherSignature() {
+        assertInvalid(token(randomSecretKey(), JWT_ALGORITHM, Instant.now().plusSeconds(60)), "invalid-signature");
+    }
+
+    @Test
+    void countsTokensThatAreNotJwts() {
+        assertInvalid("not-a-jwt", "malformed");
+        assertInvalid(token(secretKey, JWT_ALGORITHM, Instant.now().plusSeconds(60)).substring(1), "malformed");
+    }
+
+    @Test
+    void countsTokensWithUnreadableClaims() throws JOSEException {
+        JWSObject jws = new JWSObject(new JWSHeader(JWSAlgorithm.HS512), new Payload("not JSON"));
+        jws.sign(new MACSigner(secretKey));
+
+        assertInvalid(jws.serialize(), "malformed");
+    }
+
+    @Test
+    void countsUnsignedTokens() {
+        assertInvalid(new PlainJWT(new JWTClaimsSet.Builder().subject("user").build()).serialize(), "unsupported");
+    }
+
+    @Test
+    void countsTokensSignedWithAnotherAlgorithm() {
+        assertInvalid(token(secretKey, MacAlgorithm.HS256, Instant.now().plusSeconds(60)), "unsupported");
+    }
+
+    private void assertInvalid(String token, String cause) {
+        double count = meterRegistry.get(INVALID_TOKENS_METER_NAME).tag("cause", cause).counter().count();
+        double total = totalCount();
+
+        assertThatExceptionOfType(JwtException.class).isThrownBy(() -> jwtDecoder.decode(token).block());
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_NAME).tag("cause", cause).counter().count()).isEqualTo(count + 1);
+        assertThat(totalCount()).isEqualTo(total + 1);
+    }
+
+    private double totalCount() {
+        return meterRegistry.find(INVALID_TOKENS_METER_NAME).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static String token(SecretKey key, MacAlgorithm algorithm, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder().issuedAt(expiresAt.minusSeconds(60)).expiresAt(expiresAt).subject("user").build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(key))
+            .encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims))
+            .getTokenValue();
+    }
+
+    private static SecretKey randomSecretKey() {
+        byte[] keyBytes = new byte[64];
+        new SecureRandom().nextBytes(keyBytes);
+        return new SecretKeySpec(keyBytes, JWT_ALGORITHM.getName());
+    }
+}
@@ -0,0 +1,49 @@
+package api.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Measures the time to check a password against a BCrypt hash for each strength, to choose
+ * {@code application.security.password-encoder.bcrypt-strength} against the login latency budget. Run with
+ * {@code ./gradlew jmh -Pjmh=PasswordEncoderBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({ "8", "10", "12", "14" })
+    private int strength;
+
+    private BCryptPasswordEncoder passwordEncoder;
+
+    private String hash;
+
+    @Setup
+    public void setup() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
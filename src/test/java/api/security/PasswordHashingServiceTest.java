@@ -0,0 +1,105 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import api.config.ApplicationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import reactor.core.Disposable;
+
+/**
+ * Test class for the {@link PasswordHashingService}.
+ */
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getPasswordHashing().setThreads(1);
+        applicationProperties.getSecurity().getPasswordHashing().setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingService(new BlockingPasswordEncoder(), applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordHashingService.destroy();
+    }
+
+    @Test
+    void hashesOnTheHashingScheduler() {
+        release.countDown();
+
+        assertThat(passwordHashingService.encode("password").block()).isEqualTo("{hashed}password");
+        assertThat(passwordHashingService.matches("password", "{hashed}password").block()).isTrue();
+        assertThat(passwordHashingService.matches("other", "{hashed}password").block()).isFalse();
+
+        assertThat(hashingCount("encode")).isEqualTo(1);
+        assertThat(hashingCount("matches")).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsHashesWhenTheQueueIsFull() throws InterruptedException {
+        Disposable running = passwordHashingService.encode("running").subscribe();
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        Disposable queued = passwordHashingService.encode("queued").subscribe();
+
+        assertThatExceptionOfType(PasswordHashingRejectedException.class).isThrownBy(() ->
+            passwordHashingService.matches("rejected", "{hashed}rejected").block()
+        );
+        assertThat(meterRegistry.get(PasswordHashingService.REJECTED_METER_NAME).counter().count()).isEqualTo(1);
+        running.dispose();
+        queued.dispose();
+    }
+
+    private long hashingCount(String operation) {
+        return meterRegistry
+            .get(PasswordHashingService.HASHING_METER_NAME)
+            .tag(PasswordHashingService.HASHING_METER_OPERATION_DIMENSION, operation)
+            .timer()
+            .count();
+    }
+
+    /**
+     * Prefixes the passwords, once released.
+     */
+    private final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return encodedPassword.equals("{hashed}" + rawPassword);
+        }
+
+        private void await() {
+            hashing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
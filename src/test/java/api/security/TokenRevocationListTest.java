@@ -0,0 +1,122 @@
+package api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import api.domain.RevokedToken;
+import api.repository.RevokedTokenRepository;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Flux;
+
+/**
+ * Test class for the {@link TokenRevocationList}.
+ */
+class TokenRevocationListTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    public void setup() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenRevocationList = new TokenRevocationList(revokedTokenRepository);
+    }
+
+    @Test
+    void revokesTokensById() {
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationList.add(revokedToken(1L).jti(jti));
+
+        assertThat(tokenRevocationList.isRevoked(jwt(jti, "user", Instant.now()))).isTrue();
+        assertThat(tokenRevocationList.isRevoked(jwt(UUID.randomUUID().toString(), "user", Instant.now()))).isFalse();
+        assertThat(tokenRevocationList.isRevoked(jwt(null, "user", Instant.now()))).isFalse();
+    }
+
+    @Test
+    void revokesTheTokensIssuedToAUserBeforeTheRevocation() {
+        Instant revokedAt = Instant.now();
+        tokenRevocationList.add(revokedToken(1L).login("user").revokedAt(revokedAt));
+
+        assertThat(tokenRevocationList.isRevoked(jwt(null, "user", revokedAt.minusSeconds(60)))).isTrue();
+        assertThat(tokenRevocationList.isRevoked(jwt(UUID.randomUUID().toString(), "user", revokedAt))).isTrue();
+        assertThat(tokenRevocationList.isRevoked(jwt(UUID.randomUUID().toString(), "user", revokedAt.plusSeconds(1)))).isFalse();
+        assertThat(tokenRevocationList.isRevoked(jwt(UUID.randomUUID().toString(), "other", revokedAt.minusSeconds(60)))).isFalse();
+    }
+
+    @Test
+    void loadsTheRevocationsOfTheOtherInstances() {
+        String jti = UUID.randomUUID().toString();
+        String addedJti = UUID.randomUUID().toString();
+        tokenRevocationList.add(revokedToken(2L).jti(addedJti));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(ArgumentMatchers.any())).thenReturn(Flux.just(revokedToken(1L).jti(jti)));
+
+        tokenRevocationList.reload().block();
+
+        assertThat(tokenRevocationList.isRevoked(jwt(jti, "user", Instant.now()))).isTrue();
+        assertThat(tokenRevocationList.isRevoked(jwt(addedJti, "user", Instant.now()))).isTrue();
+    }
+
+    @Test
+    void forgetsExpiredRevocations() {
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationList.add(revokedToken(1L).jti(jti).expiresAt(Instant.now().minusSeconds(1)));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(ArgumentMatchers.any())).thenReturn(Flux.empty());
+
+        tokenRevocationList.reload().block();
+
+        assertThat(tokenRevocationList.isRevoked(jwt(jti, "user", Instant.now()))).isFalse();
+    }
+
+    @Test
+    void keepsTheRevocationsWhenTheyCannotBeLoaded() {
+        String jti = UUID.randomUUID().toString();
+        tokenRevocationList.add(revokedToken(1L).jti(jti));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(ArgumentMatchers.any())).thenReturn(
+            Flux.error(new IllegalStateException("Database unavailable"))
+        );
+
+        tokenRevocationList.reload().block();
+
+        assertThat(tokenRevocationList.isRevoked(jwt(jti, "user", Instant.now()))).isTrue();
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativeAndFewFalsePositives() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain("revoked-" + i)).isTrue();
+            if (bloomFilter.mightContain("valid-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    private static RevokedToken revokedToken(Long id) {
+        RevokedToken revokedToken = new RevokedToken().revokedAt(Instant.now()).expiresAt(Instant.now().plusSeconds(3600));
+        revokedToken.setId(id);
+        return revokedToken;
+    }
+
+    private static Jwt jwt(String jti, String subject, Instant issuedAt) {
+        return Jwt.withTokenValue("token")
+            .header("alg", "HS512")
+            .jti(jti)
+            .subject(subject)
+            .issuedAt(issuedAt)
+            .expiresAt(issuedAt.plusSeconds(60))
+            .build();
+    }
+}
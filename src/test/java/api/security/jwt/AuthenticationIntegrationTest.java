@@ -4,6 +4,7 @@ import api.config.SecurityConfiguration;
 import api.config.SecurityJwtConfiguration;
 import api.config.WebConfigurer;
 import api.management.SecurityMetersService;
+import api.security.PasswordHashingService;
 import api.web.rest.AuthenticateController;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -23,6 +24,7 @@ import tech.jhipster.config.JHipsterProperties;
         SecurityConfiguration.class,
         SecurityJwtConfiguration.class,
         SecurityMetersService.class,
+        PasswordHashingService.class,
         JwtAuthenticationTestUtils.class,
     }
 )
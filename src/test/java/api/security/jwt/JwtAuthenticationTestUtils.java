@@ -4,6 +4,8 @@ import static api.security.SecurityUtils.AUTHORITIES_KEY;
 import static api.security.SecurityUtils.JWT_ALGORITHM;
 
 import api.repository.UserRepository;
+import api.security.TokenRevocationList;
+import api.service.RefreshTokenService;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -15,6 +17,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
 import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.security.crypto.codec.Hex;
 import org.springframework.security.oauth2.jwt.JwsHeader;
@@ -34,9 +37,18 @@ public class JwtAuthenticationTestUtils {
     @MockBean
     private ReactiveUserDetailsService userDetailsService;
 
+    @MockBean
+    private ReactiveUserDetailsPasswordService userDetailsPasswordService;
+
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     public static String createValidToken(String jwtKey) {
         return createValidTokenForUser(jwtKey, "anonymous");
     }
@@ -4,6 +4,7 @@ import static api.security.jwt.JwtAuthenticationTestUtils.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import api.IntegrationTest;
+import api.security.CachingReactiveJwtDecoder;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collection;
@@ -77,6 +78,42 @@ class TokenAuthenticationSecurityMetersIT {
         assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "malformed").counter().count()).isEqualTo(count + 1);
     }
 
+    @Test
+    void testRepeatedTokenIsDecodedFromCache() throws Exception {
+        var hits = cacheGets("hit");
+        var misses = cacheGets("miss");
+        // A subject of its own, so that the token was not decoded by another test
+        String token = createValidTokenForUser(jwtKey, "cached-token-user");
+
+        tryToAuthenticate(token);
+        tryToAuthenticate(token);
+
+        assertThat(cacheGets("miss")).isEqualTo(misses + 1);
+        assertThat(cacheGets("hit")).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() throws Exception {
+        var count = meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "invalid-signature").counter().count();
+        String token = createTokenWithDifferentSignature();
+
+        tryToAuthenticate(token);
+        tryToAuthenticate(token);
+
+        assertThat(meterRegistry.get(INVALID_TOKENS_METER_EXPECTED_NAME).tag("cause", "invalid-signature").counter().count()).isEqualTo(
+            count + 2
+        );
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry
+            .get("cache.gets")
+            .tag("cache", CachingReactiveJwtDecoder.CACHE_NAME)
+            .tag("result", result)
+            .functionCounter()
+            .count();
+    }
+
     private void tryToAuthenticate(String token) {
         webTestClient
             .get()
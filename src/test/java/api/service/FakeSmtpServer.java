@@ -0,0 +1,139 @@
+package api.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local SMTP server keeping the messages it receives, to test the delivery of the mails without a mail server.
+ * <p>
+ * It only speaks the commands used by JavaMail without authentication nor TLS, and can reject some recipients.
+ */
+class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+
+    private final List<MimeMessage> messages = new CopyOnWriteArrayList<>();
+
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    FakeSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "fake-smtp-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    List<MimeMessage> getMessages() {
+        return messages;
+    }
+
+    int getConnections() {
+        return connections.get();
+    }
+
+    void rejectRecipient(String address) {
+        rejectedRecipients.add(address.toLowerCase(Locale.ROOT));
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(() -> converse(socket), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (SocketException e) {
+                // Closed
+                return;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void converse(Socket socket) {
+        try (
+            socket;
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            OutputStream out = socket.getOutputStream()
+        ) {
+            reply(out, "220 localhost ESMTP");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase(Locale.ROOT) : line.substring(0, 4).toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "RCPT" -> reply(out, isRejected(line) ? "550 Mailbox unavailable" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        messages.add(readMessage(in));
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException | MessagingException e) {
+            // The client went away
+        }
+    }
+
+    private boolean isRejected(String rcptCommand) {
+        int start = rcptCommand.indexOf('<');
+        int end = rcptCommand.indexOf('>');
+        return start >= 0 && end > start && rejectedRecipients.contains(rcptCommand.substring(start + 1, end).toLowerCase(Locale.ROOT));
+    }
+
+    private static MimeMessage readMessage(BufferedReader in) throws IOException, MessagingException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // Dot-stuffing
+            data.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+        }
+        return new MimeMessage(
+            Session.getInstance(new Properties()),
+            new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
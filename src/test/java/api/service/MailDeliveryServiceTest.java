@@ -0,0 +1,174 @@
+package api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.config.ApplicationProperties;
+import api.domain.MailMessage;
+import api.repository.MailMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailDeliveryService}, sending to a {@link FakeSmtpServer}.
+ */
+class MailDeliveryServiceTest {
+
+    private FakeSmtpServer smtpServer;
+
+    private MailMessageRepository mailMessageRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private MailDeliveryService mailDeliveryService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        smtpServer = new FakeSmtpServer();
+        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(smtpServer.getPort());
+
+        mailMessageRepository = mock(MailMessageRepository.class);
+        when(mailMessageRepository.deleteAllById(any())).thenReturn(Mono.empty());
+        when(mailMessageRepository.scheduleNextAttempt(any(), any(), anyString())).thenReturn(Mono.empty());
+        when(mailMessageRepository.countPending(anyInt())).thenReturn(Mono.just(0L));
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setFrom("apister@localhost.com");
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setMaxAttempts(3);
+        applicationProperties.getMail().setInitialBackoff(Duration.ofMinutes(1));
+        meterRegistry = new SimpleMeterRegistry();
+        mailDeliveryService = new MailDeliveryService(
+            mailMessageRepository,
+            javaMailSender,
+            jHipsterProperties,
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        mailDeliveryService.destroy();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsABatchOverASingleConnection() throws Exception {
+        claims(mail(1L, "john.doe@example.com"), mail(2L, "jane.doe@example.com"), mail(3L, "jim.doe@example.com"));
+
+        assertThat(mailDeliveryService.deliver().block()).isEqualTo(3);
+
+        assertThat(smtpServer.getConnections()).isEqualTo(1);
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        MimeMessage message = smtpServer.getMessages().get(0);
+        assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
+        assertThat(message.getFrom()[0]).hasToString("apister@localhost.com");
+        assertThat(message.getSubject()).isEqualTo("testSubject");
+        assertThat(message.getContent().toString()).isEqualToIgnoringNewLines("testContent");
+        verify(mailMessageRepository).deleteAllById(List.of(1L, 2L, 3L));
+        verify(mailMessageRepository, never()).scheduleNextAttempt(any(), any(), anyString());
+        assertThat(deliveredCount("sent")).isEqualTo(3);
+    }
+
+    @Test
+    void retriesTheRejectedMailsLater() {
+        smtpServer.rejectRecipient("jane.doe@example.com");
+        claims(mail(1L, "john.doe@example.com"), mail(2L, "jane.doe@example.com"));
+
+        assertThat(mailDeliveryService.deliver().block()).isEqualTo(1);
+
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        verify(mailMessageRepository).deleteAllById(List.of(1L));
+        ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(mailMessageRepository).scheduleNextAttempt(eq(2L), nextAttemptAt.capture(), anyString());
+        assertThat(nextAttemptAt.getValue()).isCloseTo(Instant.now().plus(1, ChronoUnit.MINUTES), within(10, ChronoUnit.SECONDS));
+        assertThat(deliveredCount("retried")).isEqualTo(1);
+    }
+
+    @Test
+    void doublesTheDelayBetweenAttempts() {
+        claims(mail(1L, "john.doe@example.com").attempts(2));
+
+        smtpServer.rejectRecipient("john.doe@example.com");
+        mailDeliveryService.deliver().block();
+
+        ArgumentCaptor<Instant> nextAttemptAt = ArgumentCaptor.forClass(Instant.class);
+        verify(mailMessageRepository).scheduleNextAttempt(eq(1L), nextAttemptAt.capture(), anyString());
+        assertThat(nextAttemptAt.getValue()).isCloseTo(Instant.now().plus(2, ChronoUnit.MINUTES), within(10, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void abandonsAMailAfterTheLastAttempt() {
+        smtpServer.rejectRecipient("john.doe@example.com");
+        claims(mail(1L, "john.doe@example.com").attempts(3));
+
+        mailDeliveryService.deliver().block();
+
+        assertThat(deliveredCount("abandoned")).isEqualTo(1);
+        assertThat(deliveredCount("retried")).isZero();
+    }
+
+    @Test
+    void retriesTheWholeBatchWhenTheServerIsDown() throws Exception {
+        smtpServer.close();
+        claims(mail(1L, "john.doe@example.com"), mail(2L, "jane.doe@example.com"));
+
+        assertThat(mailDeliveryService.deliver().block()).isZero();
+
+        verify(mailMessageRepository).scheduleNextAttempt(eq(1L), any(), anyString());
+        verify(mailMessageRepository).scheduleNextAttempt(eq(2L), any(), anyString());
+        assertThat(meterRegistry.get(MailDeliveryService.SEND_METER_NAME).tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void exposesTheNumberOfPendingMails() {
+        claims();
+        when(mailMessageRepository.countPending(3)).thenReturn(Mono.just(42L));
+
+        mailDeliveryService.deliver().block();
+
+        assertThat(meterRegistry.get(MailDeliveryService.PENDING_METER_NAME).gauge().value()).isEqualTo(42);
+    }
+
+    private void claims(MailMessage... mails) {
+        when(mailMessageRepository.claim(any(), any(), anyInt(), anyInt())).thenReturn(Flux.just(mails), Flux.empty());
+    }
+
+    private static MailMessage mail(Long id, String recipient) {
+        return new MailMessage().id(id).recipient(recipient).subject("testSubject").content("testContent").attempts(1);
+    }
+
+    private double deliveredCount(String outcome) {
+        return meterRegistry
+            .get(MailDeliveryService.DELIVERED_METER_NAME)
+            .tag(MailDeliveryService.DELIVERED_METER_OUTCOME_DIMENSION, outcome)
+            .counter()
+            .count();
+    }
+}
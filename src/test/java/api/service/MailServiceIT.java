@@ -6,7 +6,9 @@ import static org.mockito.Mockito.*;
 
 import api.IntegrationTest;
 import api.config.Constants;
+import api.domain.MailMessage;
 import api.domain.User;
+import api.repository.MailMessageRepository;
 import jakarta.mail.Multipart;
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeBodyPart;
@@ -18,6 +20,7 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -29,6 +32,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Flux;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
@@ -53,22 +57,30 @@ class MailServiceIT {
     private JavaMailSender javaMailSender;
 
     @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private ArgumentCaptor<MimeMessage[]> messageCaptor;
 
     @Autowired
     private MailService mailService;
 
+    @Autowired
+    private MailDeliveryService mailDeliveryService;
+
+    @Autowired
+    private MailMessageRepository mailMessageRepository;
+
     @BeforeEach
     public void setup() {
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        mailMessageRepository.deleteAll().block();
+        doNothing().when(javaMailSender).send(any(MimeMessage[].class));
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
     }
 
     @Test
     void testSendEmail() throws Exception {
-        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -79,9 +91,10 @@ class MailServiceIT {
 
     @Test
     void testSendHtmlEmail() throws Exception {
-        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -92,9 +105,10 @@ class MailServiceIT {
 
     @Test
     void testSendMultipartEmail() throws Exception {
-        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -109,9 +123,10 @@ class MailServiceIT {
 
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
-        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -130,9 +145,10 @@ class MailServiceIT {
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
-        mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
+        mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title").block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -146,9 +162,10 @@ class MailServiceIT {
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
-        mailService.sendActivationEmail(user);
+        mailService.sendActivationEmail(user).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -161,9 +178,10 @@ class MailServiceIT {
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
-        mailService.sendCreationEmail(user);
+        mailService.sendCreationEmail(user).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -176,9 +194,10 @@ class MailServiceIT {
         user.setLangKey(Constants.DEFAULT_LANGUAGE);
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
-        mailService.sendPasswordResetMail(user);
+        mailService.sendPasswordResetMail(user).block();
+        mailDeliveryService.deliver().block();
         verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = messageCaptor.getValue()[0];
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -187,12 +206,48 @@ class MailServiceIT {
 
     @Test
     void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        doThrow(new MailSendException("Mail server connection failed")).when(javaMailSender).send(any(MimeMessage[].class));
         try {
-            mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false).block();
+            mailDeliveryService.deliver().block();
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        MailMessage mailMessage = mailMessageRepository.findAll().blockFirst();
+        assertThat(mailMessage.getAttempts()).isEqualTo(1);
+        assertThat(mailMessage.getNextAttemptAt()).isAfter(Instant.now());
+    }
+
+    @Test
+    void testSendEmailsInBatch() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false).block();
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false).block();
+        mailDeliveryService.deliver().block();
+        verify(javaMailSender).send(messageCaptor.capture());
+        assertThat(messageCaptor.getValue()).hasSize(2);
+        assertThat(mailMessageRepository.count().block()).isZero();
+    }
+
+    @Test
+    void testSendEmailsFromTemplate() throws Exception {
+        User john = new User();
+        john.setLangKey(Constants.DEFAULT_LANGUAGE);
+        john.setLogin("john");
+        john.setEmail("john.doe@example.com");
+        User jane = new User();
+        jane.setLangKey(Constants.DEFAULT_LANGUAGE);
+        jane.setLogin("jane");
+        User jim = new User();
+        jim.setLangKey(Constants.DEFAULT_LANGUAGE);
+        jim.setLogin("jim");
+        jim.setEmail("jim.doe@example.com");
+        Long queued = mailService.sendEmailsFromTemplate(Flux.just(john, jane, jim), "mail/testEmail", "email.test.title").block();
+        assertThat(queued).isEqualTo(2);
+        mailDeliveryService.deliver().block();
+        verify(javaMailSender).send(messageCaptor.capture());
+        assertThat(messageCaptor.getValue())
+            .extracting(message -> message.getAllRecipients()[0].toString())
+            .containsExactlyInAnyOrder("john.doe@example.com", "jim.doe@example.com");
     }
 
     @Test
@@ -202,9 +257,10 @@ class MailServiceIT {
         user.setEmail("john.doe@example.com");
         for (String langKey : languages) {
             user.setLangKey(langKey);
-            mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
+            mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title").block();
+            mailDeliveryService.deliver().block();
             verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = messageCaptor.getValue()[0];
 
             String propertyFilePath = "i18n/messages_" + getMessageSourceSuffixForLanguage(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
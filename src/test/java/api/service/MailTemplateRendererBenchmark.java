@@ -0,0 +1,111 @@
+package api.service;
+
+import api.config.ApplicationProperties;
+import api.domain.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.MessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import reactor.core.publisher.Flux;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Compares the rendering of the activation mail of many users one after the other, as done before, with
+ * {@link MailTemplateRenderer#renderAll}. Run with {@code ./gradlew jmh -Pjmh=MailTemplateRendererBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateRendererBenchmark {
+
+    private static final String TEMPLATE_NAME = "mail/activationEmail";
+
+    private static final String TITLE_KEY = "email.activation.title";
+
+    private static final String BASE_URL = "http://127.0.0.1:8080";
+
+    @Param({ "10000" })
+    private int recipients;
+
+    private List<User> users;
+
+    private SpringTemplateEngine templateEngine;
+
+    private MessageSource messageSource;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Setup
+    public void setup() {
+        users = IntStream.range(0, recipients)
+            .mapToObj(i -> {
+                User user = new User();
+                user.setLogin("user-" + i);
+                user.setEmail("user-" + i + "@example.com");
+                user.setLangKey(i % 3 == 0 ? "fr" : "en");
+                user.setActivationKey("activation-key-" + i);
+                return user;
+            })
+            .toList();
+        messageSource = MailTemplateRendererTest.messageSource();
+        templateEngine = MailTemplateRendererTest.templateEngine(messageSource);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl(BASE_URL);
+        mailTemplateRenderer = new MailTemplateRenderer(
+            templateEngine,
+            messageSource,
+            jHipsterProperties,
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        mailTemplateRenderer.destroy();
+    }
+
+    @Benchmark
+    public long oneAfterTheOther() {
+        long length = 0;
+        for (User user : users) {
+            // MailService#sendEmailFromTemplate before MailTemplateRenderer
+            Locale locale = Locale.forLanguageTag(user.getLangKey());
+            Context context = new Context(locale);
+            context.setVariable("user", user);
+            context.setVariable("baseUrl", BASE_URL);
+            String content = templateEngine.process(TEMPLATE_NAME, context);
+            String subject = messageSource.getMessage(TITLE_KEY, null, locale);
+            length += content.length() + subject.length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public long renderAll() {
+        return mailTemplateRenderer
+            .renderAll(Flux.fromIterable(users), TEMPLATE_NAME, TITLE_KEY)
+            .map(mail -> (long) mail.content().length() + mail.subject().length())
+            .reduce(0L, Long::sum)
+            .block();
+    }
+}
@@ -0,0 +1,135 @@
+package api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import api.config.ApplicationProperties;
+import api.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import reactor.core.publisher.Flux;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}.
+ */
+class MailTemplateRendererTest {
+
+    private MessageSource messageSource;
+
+    private MeterRegistry meterRegistry;
+
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @BeforeEach
+    public void setup() {
+        messageSource = spy(messageSource());
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getMail().setBaseUrl("http://127.0.0.1:8080");
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMail().setRenderThreads(2);
+        meterRegistry = new SimpleMeterRegistry();
+        mailTemplateRenderer = new MailTemplateRenderer(
+            templateEngine(messageSource()),
+            messageSource,
+            jHipsterProperties,
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mailTemplateRenderer.destroy();
+    }
+
+    @Test
+    void rendersTheMailInTheLanguageOfTheUser() {
+        MailTemplateRenderer.RenderedMail mail = mailTemplateRenderer
+            .render(user("john", "fr"), "mail/testEmail", "email.activation.title")
+            .block();
+
+        assertThat(mail.subject()).isEqualTo("Activation de votre compte apister");
+        assertThat(mail.content()).isEqualToNormalizingNewlines("<html>test title, http://127.0.0.1:8080, john</html>\n");
+        assertThat(
+            meterRegistry
+                .get(MailTemplateRenderer.RENDER_METER_NAME)
+                .tag(MailTemplateRenderer.RENDER_METER_TEMPLATE_DIMENSION, "mail/testEmail")
+                .timer()
+                .count()
+        ).isEqualTo(1);
+    }
+
+    @Test
+    void looksUpTheSubjectOncePerLanguage() {
+        mailTemplateRenderer.render(user("john", "fr"), "mail/testEmail", "email.test.title").block();
+        mailTemplateRenderer.render(user("jane", "fr"), "mail/testEmail", "email.test.title").block();
+        mailTemplateRenderer.render(user("jim", "en"), "mail/testEmail", "email.test.title").block();
+
+        verify(messageSource, times(1)).getMessage(eq("email.test.title"), isNull(), eq(Locale.FRENCH));
+        verify(messageSource, times(1)).getMessage(eq("email.test.title"), isNull(), eq(Locale.ENGLISH));
+        verify(messageSource, times(2)).getMessage(any(String.class), isNull(), any(Locale.class));
+    }
+
+    @Test
+    void rendersTheMailsOfManyUsers() {
+        List<User> users = IntStream.range(0, 100)
+            .mapToObj(i -> user("user-" + i, i % 2 == 0 ? "fr" : "en"))
+            .toList();
+
+        List<MailTemplateRenderer.RenderedMail> mails = mailTemplateRenderer
+            .renderAll(Flux.fromIterable(users), "mail/testEmail", "email.test.title")
+            .collectList()
+            .block();
+
+        assertThat(mails).hasSize(100).extracting(MailTemplateRenderer.RenderedMail::user).containsExactlyInAnyOrderElementsOf(users);
+        assertThat(mails).allSatisfy(mail ->
+            assertThat(mail.content()).contains(mail.subject() + ", http://127.0.0.1:8080, " + mail.user().getLogin())
+        );
+    }
+
+    private static User user(String login, String langKey) {
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(login + "@example.com");
+        user.setLangKey(langKey);
+        return user;
+    }
+
+    static ResourceBundleMessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        messageSource.setFallbackToSystemLocale(false);
+        return messageSource;
+    }
+
+    static SpringTemplateEngine templateEngine(MessageSource messageSource) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        return templateEngine;
+    }
+}
@@ -0,0 +1,120 @@
+package api.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import api.security.LoginRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Test class for the {@link LoginRateLimitingWebFilter}.
+ */
+class LoginRateLimitingWebFilterTest {
+
+    private static final String LOGIN_BODY = "{\"username\":\"user\",\"password\":\"password\"}";
+
+    private LoginRateLimiter loginRateLimiter;
+
+    private LoginRateLimitingWebFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        loginRateLimiter = mock(LoginRateLimiter.class);
+        when(loginRateLimiter.acquireForAddress(anyString())).thenReturn(Duration.ZERO);
+        when(loginRateLimiter.acquireForLogin(anyString())).thenReturn(Duration.ZERO);
+        filter = new LoginRateLimitingWebFilter(loginRateLimiter, new ObjectMapper());
+    }
+
+    @Test
+    void replaysTheBodyOfAnAllowedLogin() {
+        MockServerWebExchange exchange = loginExchange();
+        AtomicReference<String> body = new AtomicReference<>();
+
+        filter
+            .filter(exchange, chainedExchange ->
+                DataBufferUtils.join(chainedExchange.getRequest().getBody())
+                    .doOnNext(buffer -> body.set(buffer.toString(StandardCharsets.UTF_8)))
+                    .then()
+            )
+            .block();
+
+        assertThat(body.get()).isEqualTo(LOGIN_BODY);
+        verify(loginRateLimiter).acquireForAddress("192.0.2.1");
+        verify(loginRateLimiter).acquireForLogin("user");
+    }
+
+    @Test
+    void rejectsAThrottledAddressWithoutReadingTheLogin() {
+        when(loginRateLimiter.acquireForAddress("192.0.2.1")).thenReturn(Duration.ofMillis(1500));
+        MockServerWebExchange exchange = loginExchange();
+
+        filter.filter(exchange, respondingWith(HttpStatus.OK)).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        verify(loginRateLimiter, never()).acquireForLogin(anyString());
+    }
+
+    @Test
+    void rejectsAThrottledLogin() {
+        when(loginRateLimiter.acquireForLogin("user")).thenReturn(Duration.ofSeconds(30));
+        MockServerWebExchange exchange = loginExchange();
+
+        filter.filter(exchange, respondingWith(HttpStatus.OK)).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+    }
+
+    @Test
+    void recordsTheOutcomeOfTheLogin() {
+        filter.filter(loginExchange(), respondingWith(HttpStatus.UNAUTHORIZED)).block();
+        verify(loginRateLimiter).loginFailed("user");
+
+        filter.filter(loginExchange(), respondingWith(HttpStatus.OK)).block();
+        verify(loginRateLimiter).loginSucceeded("user");
+    }
+
+    @Test
+    void ignoresTheOtherRequests() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+            MockServerHttpRequest.post("/api/authenticate/refresh").remoteAddress(new InetSocketAddress("192.0.2.1", 4242)).body("{}")
+        );
+
+        filter.filter(exchange, respondingWith(HttpStatus.OK)).block();
+
+        verify(loginRateLimiter, never()).acquireForAddress(anyString());
+        verify(loginRateLimiter, never()).acquireForLogin(anyString());
+    }
+
+    private static MockServerWebExchange loginExchange() {
+        return MockServerWebExchange.from(
+            MockServerHttpRequest.post("/api/authenticate").remoteAddress(new InetSocketAddress("192.0.2.1", 4242)).body(LOGIN_BODY)
+        );
+    }
+
+    private static WebFilterChain respondingWith(HttpStatusCode status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+    }
+}
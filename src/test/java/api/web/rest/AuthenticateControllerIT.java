@@ -1,23 +1,37 @@
 package api.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import api.IntegrationTest;
 import api.config.Constants;
 import api.domain.User;
 import api.repository.UserRepository;
+import api.security.AuthoritiesConstants;
+import api.service.dto.AdminUserDTO;
+import api.service.dto.PasswordChangeDTO;
 import api.web.rest.vm.LoginVM;
+import api.web.rest.vm.RefreshTokenVM;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
  * Integration tests for the {@link AuthenticateController} REST controller.
+ * <p>
+ * The user details cache is enabled, so the logins after a modification of the user check its eviction.
  */
 @AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
 @IntegrationTest
+@TestPropertySource(properties = "application.security.user-details-cache.maximum-size=100")
 class AuthenticateControllerIT {
 
     @Autowired
@@ -91,6 +105,36 @@ class AuthenticateControllerIT {
             .isNotEmpty();
     }
 
+    @Test
+    void testAuthorizeUpgradesOutdatedPasswordHash() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-upgrade");
+        user.setEmail("user-jwt-controller-upgrade@example.com");
+        user.setActivated(true);
+        // BCrypt hash created before the encoder id prefix
+        user.setPassword(new BCryptPasswordEncoder(4).encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-upgrade");
+        login.setPassword("test");
+        webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(login))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        String upgradedPassword = userRepository.findOneByLogin("user-jwt-controller-upgrade").block().getPassword();
+        assertThat(upgradedPassword).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches("test", upgradedPassword)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgradedPassword)).isFalse();
+    }
+
     @Test
     void testAuthorizeFails() throws Exception {
         LoginVM login = new LoginVM();
@@ -110,4 +154,165 @@ class AuthenticateControllerIT {
             .jsonPath("$.id_token")
             .doesNotExist();
     }
+
+    @Test
+    void testAuthorizeLocksOutAfterConsecutiveFailures() throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername("locked-out-user");
+        login.setPassword("wrong password");
+        for (int i = 0; i < 5; i++) {
+            webTestClient
+                .post()
+                .uri("/api/authenticate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(om.writeValueAsBytes(login))
+                .exchange()
+                .expectStatus()
+                .isUnauthorized();
+        }
+
+        webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(login))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+            .expectHeader()
+            .exists("Retry-After");
+    }
+
+    @Test
+    void testAuthorizeAfterPasswordChange() throws Exception {
+        String idToken = login("user-jwt-controller-password").get("id_token").asText();
+
+        webTestClient
+            .post()
+            .uri("/api/account/change-password")
+            .headers(headers -> headers.setBearerAuth(idToken))
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(new PasswordChangeDTO("test", "new password")))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        authenticate("user-jwt-controller-password", "test").expectStatus().isUnauthorized();
+        authenticate("user-jwt-controller-password", "new password").expectStatus().isOk();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void testAuthorizeAfterDeactivation() throws Exception {
+        login("user-jwt-controller-deactivated");
+        AdminUserDTO userDTO = new AdminUserDTO(userRepository.findOneWithAuthoritiesByLogin("user-jwt-controller-deactivated").block());
+        userDTO.setActivated(false);
+
+        webTestClient
+            .put()
+            .uri("/api/admin/users")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(userDTO))
+            .exchange()
+            .expectStatus()
+            .isOk();
+
+        authenticate("user-jwt-controller-deactivated", "test").expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testRefresh() throws Exception {
+        JsonNode tokens = login("user-jwt-controller-refresh");
+        assertThat(tokens.get("refresh_token").asText()).isNotEmpty();
+
+        JsonNode renewedTokens = refresh(tokens.get("refresh_token").asText())
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueMatches("Authorization", "Bearer .+")
+            .expectBody(JsonNode.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(renewedTokens.get("id_token").asText()).isNotEmpty();
+        assertThat(renewedTokens.get("refresh_token").asText()).isNotEqualTo(tokens.get("refresh_token").asText());
+        refresh(renewedTokens.get("refresh_token").asText()).expectStatus().isOk();
+    }
+
+    @Test
+    void testRefreshWithUsedTokenRevokesItsFamily() throws Exception {
+        JsonNode tokens = login("user-jwt-controller-refresh-reuse");
+        String renewedRefreshToken = refresh(tokens.get("refresh_token").asText())
+            .expectStatus()
+            .isOk()
+            .expectBody(JsonNode.class)
+            .returnResult()
+            .getResponseBody()
+            .get("refresh_token")
+            .asText();
+
+        refresh(tokens.get("refresh_token").asText()).expectStatus().isUnauthorized();
+        refresh(renewedRefreshToken).expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testRefreshFails() throws Exception {
+        refresh("unknown-refresh-token")
+            .expectStatus()
+            .isUnauthorized()
+            .expectHeader()
+            .doesNotExist("Authorization")
+            .expectBody()
+            .jsonPath("$.id_token")
+            .doesNotExist();
+    }
+
+    private JsonNode login(String username) throws Exception {
+        User user = new User();
+        user.setLogin(username);
+        user.setEmail(username + "@example.com");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        user.setCreatedBy(Constants.SYSTEM);
+
+        userRepository.save(user).block();
+
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword("test");
+        return webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(login))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(JsonNode.class)
+            .returnResult()
+            .getResponseBody();
+    }
+
+    private WebTestClient.ResponseSpec authenticate(String username, String password) throws Exception {
+        LoginVM login = new LoginVM();
+        login.setUsername(username);
+        login.setPassword(password);
+        return webTestClient
+            .post()
+            .uri("/api/authenticate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(login))
+            .exchange();
+    }
+
+    private WebTestClient.ResponseSpec refresh(String refreshToken) throws Exception {
+        RefreshTokenVM refreshTokenVM = new RefreshTokenVM();
+        refreshTokenVM.setRefreshToken(refreshToken);
+        return webTestClient
+            .post()
+            .uri("/api/authenticate/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(refreshTokenVM))
+            .exchange();
+    }
 }
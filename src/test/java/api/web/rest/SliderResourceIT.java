@@ -11,13 +11,21 @@ import api.IntegrationTest;
 import api.domain.Slider;
 import api.domain.User;
 import api.repository.EntityManager;
+import api.repository.KeysetCursor;
 import api.repository.SliderRepository;
 import api.repository.UserRepository;
 import api.repository.UserRepository;
+import api.security.AuthoritiesConstants;
+import api.service.SliderImportService;
 import api.service.SliderService;
+import api.service.dto.SliderBatchResultDTO;
 import api.service.dto.SliderDTO;
+import api.service.dto.SliderImportResultDTO;
 import api.service.mapper.SliderMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -28,6 +36,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -157,6 +167,168 @@ class SliderResourceIT {
         insertedSlider = returnedSlider;
     }
 
+    @Test
+    void saveSlidersInBatch() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        SliderDTO created = sliderMapper.toDto(new Slider().presentation(DEFAULT_PRESENTATION).user(slider.getUser()));
+        SliderDTO updated = sliderMapper.toDto(slider);
+        updated.setPresentation(UPDATED_PRESENTATION);
+        SliderDTO missing = sliderMapper.toDto(new Slider().id(longCount.incrementAndGet()).presentation(UPDATED_PRESENTATION));
+        missing.setUser(updated.getUser());
+        SliderDTO invalid = sliderMapper.toDto(new Slider().user(slider.getUser()));
+
+        List<SliderBatchResultDTO> results = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(created, updated, missing, invalid)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(SliderBatchResultDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(results)
+            .extracting(SliderBatchResultDTO::getStatus)
+            .containsExactly(
+                SliderBatchResultDTO.Status.CREATED,
+                SliderBatchResultDTO.Status.UPDATED,
+                SliderBatchResultDTO.Status.NOT_FOUND,
+                SliderBatchResultDTO.Status.INVALID
+            );
+        assertThat(results.get(3).getMessage()).isEqualTo("presentation: must not be null");
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        assertThat(getPersistedSlider(slider).getPresentation()).isEqualTo(UPDATED_PRESENTATION);
+        assertThat(getPersistedSlider(new Slider().id(results.get(0).getId())).getPresentation()).isEqualTo(DEFAULT_PRESENTATION);
+        sliderRepository.deleteById(results.get(0).getId()).block();
+    }
+
+    @Test
+    void saveSlidersInBatchWithStaleVersion() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+
+        SliderDTO stale = sliderMapper.toDto(slider);
+        stale.setVersion(slider.getVersion() + 1);
+        stale.setPresentation(UPDATED_PRESENTATION);
+
+        List<SliderBatchResultDTO> results = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(stale)))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(SliderBatchResultDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(results).extracting(SliderBatchResultDTO::getStatus).containsExactly(SliderBatchResultDTO.Status.CONFLICT);
+        assertThat(getPersistedSlider(slider).getPresentation()).isEqualTo(DEFAULT_PRESENTATION);
+    }
+
+    @Test
+    void deleteSlidersInBatch() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+        long databaseSizeBeforeDelete = getRepositoryCount();
+
+        List<SliderBatchResultDTO> results = webTestClient
+            .method(HttpMethod.DELETE)
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(slider.getId(), longCount.incrementAndGet())))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(SliderBatchResultDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(results)
+            .extracting(SliderBatchResultDTO::getStatus)
+            .containsExactly(SliderBatchResultDTO.Status.DELETED, SliderBatchResultDTO.Status.NOT_FOUND);
+        assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
+        insertedSlider = null;
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void importSlidersFromCsv() {
+        long databaseSizeBeforeImport = getRepositoryCount();
+        Long userId = slider.getUser().getId();
+        String csv = "id;presentation;user_id\n1;\"Ten; \"\"quoted\"\"\";" + userId + "\n2;Plain;" + userId + "\n3;Unknown user;-1\n4;No user;\n";
+
+        SliderImportResultDTO result = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(SliderImportService.TEXT_CSV)
+            .bodyValue(csv)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(SliderImportResultDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly("line 4: user -1 not found", "line 5: user_id must be a number");
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeImport + 2);
+        assertThat(sliderRepository.findAll().map(Slider::getPresentation).collectList().block()).contains("Ten; \"quoted\"", "Plain");
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void importSlidersFromNdjson() {
+        long databaseSizeBeforeImport = getRepositoryCount();
+        String ndjson = "{\"presentation\":\"From JSON\",\"user_id\":" + slider.getUser().getId() + "}\nnot json\n";
+
+        SliderImportResultDTO result = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(ndjson)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(SliderImportResultDTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getErrors()).containsExactly("line 2: invalid JSON");
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeImport + 1);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void importSlidersWithInvalidHeader() {
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(SliderImportService.TEXT_CSV)
+            .bodyValue("id;title\n1;Slider\n")
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void importSlidersIsForbiddenForUsers() {
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/import")
+            .contentType(SliderImportService.TEXT_CSV)
+            .bodyValue("presentation;user_id\n")
+            .exchange()
+            .expectStatus()
+            .isForbidden();
+    }
+
     @Test
     void createSliderWithExistingId() throws Exception {
         // Create the Slider with an existing ID
@@ -222,6 +394,98 @@ class SliderResourceIT {
             .value(hasItem(DEFAULT_PRESENTATION));
     }
 
+    @Test
+    void getAllSlidersAfterCursor() {
+        // Initialize the database with sliders sharing the same presentation
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(sliderRepository.save(createEntity(em)).block().getId());
+        }
+        ids.sort(null);
+        String next = KeysetCursor.of("presentation", DEFAULT_PRESENTATION, ids.get(1)).encode();
+
+        // Get the first page, the id breaks the tie between the equal presentations
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=presentation,asc&size=2")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectHeader()
+            .value(HttpHeaders.LINK, link -> assertThat(link).contains("after=" + next).endsWith("; rel=\"next\""))
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(List.of(ids.get(0).intValue(), ids.get(1).intValue()));
+
+        // Get the last page
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after={after}&sort=presentation,asc&size=2", next)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.LINK)
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .isEqualTo(List.of(ids.get(2).intValue()));
+    }
+
+    @Test
+    void getAllSlidersAfterInvalidCursor() {
+        webTestClient.get().uri(ENTITY_API_URL + "?after=invalid&sort=id,asc").exchange().expectStatus().isBadRequest();
+
+        // The cursor of another sort
+        String cursor = KeysetCursor.of("id", 1L, 1L).encode();
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after={after}&sort=presentation,asc", cursor)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllSlidersAfterWithUnsupportedSort() {
+        webTestClient.get().uri(ENTITY_API_URL + "?after=&sort=userId,asc").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri(ENTITY_API_URL + "?after=&sort=presentation,asc&sort=userId,asc").exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getAllSlidersAsStream() {
+        // Initialize the database
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(sliderRepository.save(createEntity(em)).block().getId());
+        }
+        ids.sort(null);
+        sliderRepository.save(createUpdatedEntity(em)).block();
+
+        // Stream the filtered sliders, the page size is ignored
+        List<SliderDTO> sliders = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?presentation.equals=" + DEFAULT_PRESENTATION + "&sort=id,desc&size=1")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .returnResult(SliderDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+        assertThat(sliders).extracting(SliderDTO::getId).containsExactly(ids.get(2), ids.get(1), ids.get(0));
+        assertThat(sliders).extracting(SliderDTO::getPresentation).containsOnly(DEFAULT_PRESENTATION);
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllSlidersWithEagerRelationshipsIsEnabled() {
         when(sliderServiceMock.findAllWithEagerRelationships(any())).thenReturn(Flux.empty());
@@ -261,6 +525,32 @@ class SliderResourceIT {
             .value(is(DEFAULT_PRESENTATION));
     }
 
+    @Test
+    void getSliderWithETag() {
+        insertedSlider = sliderRepository.save(slider).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, slider.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"0\"");
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, slider.getId())
+            .accept(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+    }
+
     @Test
     void getSlidersByIdFiltering() {
         // Initialize the database
@@ -451,6 +741,69 @@ class SliderResourceIT {
         assertPersistedSliderToMatchAllProperties(updatedSlider);
     }
 
+    @Test
+    void putSliderWithIfMatch() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+
+        SliderDTO sliderDTO = sliderMapper.toDto(slider);
+        sliderDTO.setPresentation(UPDATED_PRESENTATION);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, sliderDTO.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"0\"")
+            .bodyValue(om.writeValueAsBytes(sliderDTO))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .valueEquals(HttpHeaders.ETAG, "\"1\"");
+
+        assertThat(getPersistedSlider(slider).getPresentation()).isEqualTo(UPDATED_PRESENTATION);
+    }
+
+    @Test
+    void putSliderWithStaleIfMatch() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+
+        SliderDTO sliderDTO = sliderMapper.toDto(slider);
+        sliderDTO.setPresentation(UPDATED_PRESENTATION);
+
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, sliderDTO.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(om.writeValueAsBytes(sliderDTO))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(412);
+
+        assertThat(getPersistedSlider(slider).getPresentation()).isEqualTo(DEFAULT_PRESENTATION);
+    }
+
+    @Test
+    void patchSliderWithStaleIfMatch() throws Exception {
+        insertedSlider = sliderRepository.save(slider).block();
+
+        SliderDTO sliderDTO = new SliderDTO();
+        sliderDTO.setId(slider.getId());
+        sliderDTO.setPresentation(UPDATED_PRESENTATION);
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, sliderDTO.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .header(HttpHeaders.IF_MATCH, "\"1\"")
+            .bodyValue(om.writeValueAsBytes(sliderDTO))
+            .exchange()
+            .expectStatus()
+            .isEqualTo(412);
+
+        assertThat(getPersistedSlider(slider).getPresentation()).isEqualTo(DEFAULT_PRESENTATION);
+    }
+
     @Test
     void putNonExistingSlider() throws Exception {
         long databaseSizeBeforeUpdate = getRepositoryCount();
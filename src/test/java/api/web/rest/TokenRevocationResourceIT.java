@@ -0,0 +1,115 @@
+package api.web.rest;
+
+import static api.security.SecurityUtils.JWT_ALGORITHM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import api.IntegrationTest;
+import api.config.Constants;
+import api.domain.RevokedToken;
+import api.domain.User;
+import api.repository.RevokedTokenRepository;
+import api.repository.UserRepository;
+import api.security.AuthoritiesConstants;
+import java.time.Instant;
+import java.util.UUID;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link TokenRevocationResource} REST controller.
+ */
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_TIMEOUT)
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+class TokenRevocationResourceIT {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private User user;
+
+    @AfterEach
+    public void cleanup() {
+        revokedTokenRepository.deleteAll().block();
+        if (user != null) {
+            userRepository.delete(user).block();
+        }
+    }
+
+    @Test
+    void revokeToken() {
+        String jti = UUID.randomUUID().toString();
+        String token = createToken(jti, "revoked-token-user");
+        assertThat(jwtDecoder.decode(token).block().getId()).isEqualTo(jti);
+
+        webTestClient.post().uri("/api/admin/revoked-tokens/{jti}", jti).exchange().expectStatus().isNoContent();
+
+        RevokedToken revokedToken = revokedTokenRepository.findAll().blockFirst();
+        assertThat(revokedToken.getJti()).isEqualTo(jti);
+        assertThat(revokedToken.getExpiresAt()).isAfter(Instant.now());
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(token).block());
+        assertThat(jwtDecoder.decode(createToken(UUID.randomUUID().toString(), "revoked-token-user")).block()).isNotNull();
+    }
+
+    @Test
+    void revokeUserTokens() {
+        user = new User();
+        user.setLogin("revoked-user");
+        user.setEmail("revoked-user@localhost");
+        user.setPassword(RandomStringUtils.insecure().nextAlphanumeric(60));
+        user.setActivated(true);
+        user.setCreatedBy(Constants.SYSTEM);
+        user = userRepository.save(user).block();
+        String token = createToken(UUID.randomUUID().toString(), user.getLogin());
+
+        webTestClient.post().uri("/api/admin/users/{login}/revoked-tokens", user.getLogin()).exchange().expectStatus().isNoContent();
+
+        assertThat(revokedTokenRepository.findAll().blockFirst().getLogin()).isEqualTo(user.getLogin());
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> jwtDecoder.decode(token).block());
+        assertThat(jwtDecoder.decode(createToken(UUID.randomUUID().toString(), "another-user")).block()).isNotNull();
+    }
+
+    @Test
+    void revokeTokensOfUnknownUser() {
+        webTestClient.post().uri("/api/admin/users/{login}/revoked-tokens", "unknown-user").exchange().expectStatus().isNotFound();
+
+        assertThat(revokedTokenRepository.count().block()).isZero();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void revokeTokenIsForbiddenToUsers() {
+        webTestClient.post().uri("/api/admin/revoked-tokens/{jti}", UUID.randomUUID().toString()).exchange().expectStatus().isForbidden();
+    }
+
+    private String createToken(String jti, String subject) {
+        // Issued a second ago, so that the revocations of its user made now apply to it
+        Instant now = Instant.now().minusSeconds(1);
+        JwtClaimsSet claims = JwtClaimsSet.builder().id(jti).issuedAt(now).expiresAt(now.plusSeconds(60)).subject(subject).build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+    }
+}
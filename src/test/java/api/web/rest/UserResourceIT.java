@@ -7,6 +7,7 @@ import api.config.Constants;
 import api.domain.User;
 import api.repository.AuthorityRepository;
 import api.repository.EntityManager;
+import api.repository.KeysetCursor;
 import api.repository.UserRepository;
 import api.security.AuthoritiesConstants;
 import api.service.dto.AdminUserDTO;
@@ -20,6 +21,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -268,6 +270,97 @@ class UserResourceIT {
         assertThat(foundUser.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
     }
 
+    @Test
+    void getAllUsersSortedWithAuthorities() {
+        // Initialize the database
+        userRepository.save(user).block();
+        userRepository.saveUserAuthority(user.getId(), AuthoritiesConstants.USER).block();
+        User otherUser = createEntity();
+        userRepository.save(otherUser).block();
+
+        // Get all the users sorted by login
+        List<AdminUserDTO> foundUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?sort=login,desc&size=100")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .filter(foundUser -> foundUser.getLogin().startsWith(DEFAULT_LOGIN))
+            .collectList()
+            .block();
+        assertThat(foundUsers).extracting(AdminUserDTO::getLogin).containsExactly(otherUser.getLogin(), DEFAULT_LOGIN);
+        assertThat(foundUsers.get(0).getAuthorities()).isEmpty();
+        assertThat(foundUsers.get(1).getAuthorities()).containsExactly(AuthoritiesConstants.USER);
+    }
+
+    @Test
+    void getAllUsersAfterCursor() {
+        // Initialize the database
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User keysetUser = createEntity();
+            keysetUser.setLogin("keyset" + i);
+            users.add(userRepository.save(keysetUser).block());
+        }
+        String next = KeysetCursor.of("login", "keyset1", users.get(1).getId()).encode();
+
+        // Get the first page, after the default users sorted before
+        webTestClient
+            .get()
+            .uri("/api/admin/users?after={after}&sort=login,desc&size=2", KeysetCursor.of("login", "keyset3", 0L).encode())
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectHeader()
+            .value(HttpHeaders.LINK, link -> assertThat(link).contains("after=" + next).endsWith("; rel=\"next\""))
+            .expectBody()
+            .jsonPath("$.[*].login")
+            .isEqualTo(List.of("keyset2", "keyset1"));
+
+        // Get the last page
+        List<AdminUserDTO> foundUsers = webTestClient
+            .get()
+            .uri("/api/admin/users?after={after}&sort=login,desc&size=2", next)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist(HttpHeaders.LINK)
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .returnResult(AdminUserDTO.class)
+            .getResponseBody()
+            .collectList()
+            .block();
+        assertThat(foundUsers).extracting(AdminUserDTO::getLogin).containsExactly("keyset0");
+    }
+
+    @Test
+    void getAllUsersAfterInvalidCursor() {
+        webTestClient.get().uri("/api/admin/users?after=invalid&sort=login,asc").exchange().expectStatus().isBadRequest();
+
+        // The cursor of another sort
+        webTestClient
+            .get()
+            .uri("/api/admin/users?after={after}&sort=login,asc", KeysetCursor.of("id", 1L, 1L).encode())
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    void getAllUsersAfterWithUnsupportedSort() {
+        webTestClient.get().uri("/api/admin/users?after=&sort=email,asc").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/admin/users?after=&sort=login,asc&sort=email,asc").exchange().expectStatus().isBadRequest();
+    }
+
     @Test
     void getUser() {
         // Initialize the database